@@ -0,0 +1,95 @@
+// Load test comparing request handling on platform threads and on virtual threads (k6, https://k6.io).
+//
+// Run the application twice against the same database, once per mode:
+//   ./gradlew bootRun                                                   # platform threads
+//   ./gradlew bootRun --args='--spring.profiles.active=virtual-threads' # virtual threads
+// and the same script against each:
+//   k6 run -e PASSWORD=<password of USERNAME> --summary-export=platform.json load-tests/virtual-threads.js
+//   k6 run -e PASSWORD=<password of USERNAME> --summary-export=virtual.json load-tests/virtual-threads.js
+//
+// The arrival rate is fixed (open model), so a slow server doesn't slow down the test: compare
+// http_req_duration p95/p99, http_reqs (throughput) and the share of 503s ("overloaded") per mode.
+// On virtual threads also watch http.server.requests.concurrency.*, hikaricp.connections.pending
+// and jvm.threads.virtual.pinned on /actuator/metrics while the test runs.
+//
+// Options (-e NAME=value): BASE_URL, USERNAME, PASSWORD, CUSTOMER_ID (the customer of USERNAME),
+// PEAK_RATE (requests per second at the peak).
+import http from 'k6/http';
+import { check } from 'k6';
+import { Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'user';
+const PASSWORD = __ENV.PASSWORD;
+const CUSTOMER_ID = __ENV.CUSTOMER_ID || 'a1b9b31d-e73c-4112-af7c-b68530f38223';
+const PEAK_RATE = parseInt(__ENV.PEAK_RATE || '1000');
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-arrival-rate',
+      startRate: 10,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: [
+        { duration: '30s', target: PEAK_RATE / 4 }, // warm up
+        { duration: '1m', target: PEAK_RATE / 4 },
+        { duration: '30s', target: PEAK_RATE }, // beyond what 10 connections can serve
+        { duration: '1m', target: PEAK_RATE },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'http_req_duration{expected_response:true}': ['p(99)<2000'],
+    overloaded: ['rate<0.05'],
+  },
+};
+
+const overloaded = new Rate('overloaded');
+
+export function setup() {
+  if (!PASSWORD) {
+    throw new Error('Set the password of ' + USERNAME + ' with -e PASSWORD=...');
+  }
+  const response = http.post(`${BASE_URL}/api/v1/auth/token`,
+      JSON.stringify({ username: USERNAME, password: PASSWORD }),
+      { headers: { 'Content-Type': 'application/json' } });
+  check(response, { 'signed in': r => r.status === 200 }) || fail(response);
+  return { token: response.json('accessToken') };
+}
+
+// Reads that take a database connection each: catalog page, cart and orders
+const REQUESTS = [
+  { name: 'products', path: () => '/api/v1/products', weight: 6 },
+  { name: 'cart', path: () => `/api/v1/customers/${CUSTOMER_ID}/cart`, weight: 3 },
+  { name: 'orders', path: () => `/api/v1/customers/${CUSTOMER_ID}/orders`, weight: 1 },
+];
+const TOTAL_WEIGHT = REQUESTS.reduce((sum, request) => sum + request.weight, 0);
+
+function pick() {
+  let n = Math.random() * TOTAL_WEIGHT;
+  for (const request of REQUESTS) {
+    n -= request.weight;
+    if (n < 0) {
+      return request;
+    }
+  }
+  return REQUESTS[0];
+}
+
+export default function (data) {
+  const request = pick();
+  const response = http.get(BASE_URL + request.path(), {
+    headers: { Authorization: `Bearer ${data.token}`, Accept: 'application/json' },
+    tags: { name: request.name },
+  });
+  overloaded.add(response.status === 503);
+  check(response, { 'ok or overloaded': r => r.status === 200 || r.status === 503 });
+}
+
+function fail(response) {
+  throw new Error(`Sign in failed with ${response.status}: ${response.body}`);
+}
@@ -0,0 +1,29 @@
+package com.example.ecommercedemo.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can inspect what repository methods
+ * actually send to the database.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+  private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.add(sql);
+    return sql;
+  }
+
+  public static void clear() {
+    STATEMENTS.clear();
+  }
+
+  public static List<String> statements() {
+    return List.copyOf(STATEMENTS);
+  }
+}
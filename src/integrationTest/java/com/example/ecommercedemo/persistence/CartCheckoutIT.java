@@ -0,0 +1,138 @@
+package com.example.ecommercedemo.persistence;
+
+import com.example.ecommercedemo.address.AddressMapper;
+import com.example.ecommercedemo.card.CardMapper;
+import com.example.ecommercedemo.cart.CartMapper;
+import com.example.ecommercedemo.cart.CartServiceImpl;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.item.ItemMapper;
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Item;
+import com.example.ecommercedemo.model.Order;
+import com.example.ecommercedemo.model.OrderReq;
+import com.example.ecommercedemo.order.OrderMapper;
+import com.example.ecommercedemo.order.OrderService;
+import com.example.ecommercedemo.order.OrderServiceImpl;
+import com.example.ecommercedemo.payment.PaymentMapper;
+import com.example.ecommercedemo.shipment.ShipmentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A cart filled and checked out through the services against Postgres, each write committed in
+ * its own transaction as in production: new items must reference their product (not a detached
+ * copy of it), and every write must advance the cart's version.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CartServiceImpl.class, OrderServiceImpl.class, CartMapper.class, OrderMapper.class, ItemMapper.class,
+    CustomerMapper.class, AddressMapper.class, CardMapper.class, PaymentMapper.class, ShipmentMapper.class,
+    OptimisticLockRetry.class, SimpleMeterRegistry.class})
+class CartCheckoutIT {
+
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("ecomm");
+
+  static {
+    POSTGRES.start();
+  }
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+  }
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private CartServiceImpl cartService;
+  @Autowired
+  private OrderService orderService;
+
+  private JdbcTemplate jdbc;
+  private UUID customerId;
+  private UUID productId;
+  private UUID otherProductId;
+  private UUID addressId;
+  private UUID cardId;
+
+  // A new customer per test, without a cart
+  @BeforeEach
+  void seed() {
+    jdbc = new JdbcTemplate(dataSource);
+    customerId = UUID.randomUUID();
+    productId = UUID.randomUUID();
+    otherProductId = UUID.randomUUID();
+    addressId = UUID.randomUUID();
+    cardId = UUID.randomUUID();
+    String suffix = customerId.toString().substring(0, 8);
+
+    jdbc.update("INSERT INTO ecomm.product (id, name, description, price, count) VALUES (?, ?, 'Description', 10, 100)",
+        productId, "Product " + suffix);
+    jdbc.update("INSERT INTO ecomm.product (id, name, description, price, count) VALUES (?, ?, 'Description', 5, 100)",
+        otherProductId, "Other product " + suffix);
+    jdbc.update("INSERT INTO ecomm.customer (id, username, first_name, last_name, email, phone, status) "
+        + "VALUES (?, ?, 'First', 'Last', ?, '123456789', 'ACTIVE')", customerId, "customer-" + suffix, suffix + "@test.com");
+    jdbc.update("INSERT INTO ecomm.address (id, number, street, city, country, zipcode, customer_id) "
+        + "VALUES (?, '1', 'Street', 'City', 'Country', '12345', ?)", addressId, customerId);
+    jdbc.update("INSERT INTO ecomm.card (id, number, customer_id, last_name, expires, cvv) "
+        + "VALUES (?, ?, ?, 'Last', '12/30', '123')", cardId, cardId.toString().replace("-", "").substring(0, 16), customerId);
+  }
+
+  @Test
+  @DisplayName("An item added to a new cart is ordered at checkout")
+  void addItemAndCheckout() {
+    Cart cart = cartService.addItemToCart(customerId, item(2));
+    assertEquals(1, cart.getItems().size());
+    assertEquals(productId, cart.getItems().get(0).getProductId());
+
+    cartService.replaceItemInCart(customerId, item(3));
+
+    Order order = orderService.addOrder(customerId, new OrderReq().addressId(addressId).cardId(cardId));
+    assertEquals(1, order.getItems().size());
+    assertEquals(0, new BigDecimal("30").compareTo(new BigDecimal(order.getTotal())));
+    assertTrue(cartService.getCartItemsByCustomerId(customerId).isEmpty());
+
+    // Created with version 0; the add, the replace and the checkout each incremented it
+    assertEquals(3, jdbc.queryForObject("SELECT version FROM ecomm.cart WHERE customer_id = ?", Long.class, customerId));
+  }
+
+  @Test
+  @DisplayName("Cart items written back in one go are all linked to the cart and reference their products")
+  void saveCartItems() {
+    Item other = new Item().productId(otherProductId).quantity(1).unitPrice("5.00");
+    cartService.saveCartItems(customerId, List.of(item(4), other));
+
+    List<UUID> productIds = cartService.getCartItemsByCustomerId(customerId).stream().map(Item::getProductId).toList();
+    assertEquals(2, productIds.size());
+    assertTrue(productIds.containsAll(List.of(productId, otherProductId)));
+  }
+
+  private Item item(int quantity) {
+    return new Item().productId(productId).quantity(quantity).unitPrice("10.00");
+  }
+}
@@ -0,0 +1,236 @@
+package com.example.ecommercedemo.persistence;
+
+import com.example.ecommercedemo.card.CardRepository;
+import com.example.ecommercedemo.cart.CartRepository;
+import com.example.ecommercedemo.customer.CustomerRepository;
+import com.example.ecommercedemo.item.ItemRepository;
+import com.example.ecommercedemo.model.OrderReq;
+import com.example.ecommercedemo.order.OrderRepository;
+import com.example.ecommercedemo.user.UserRepository;
+import com.example.ecommercedemo.user.UserTokenRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query plan regression tests: runs repository methods against a seeded Postgres, EXPLAINs every
+ * statement they send, and fails when a plan reads a large table sequentially. A failure usually
+ * means a query lost its index, or a new query needs one.
+ * <p>
+ * Statements are explained with {@code GENERIC_PLAN}, the plan Postgres uses for a prepared
+ * statement independent of the bound values. Each repository call runs in a transaction that is
+ * rolled back, so tests don't change the data set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.ecommercedemo.persistence.CapturingStatementInspector")
+class QueryPlanIT {
+
+  // Tables with at least this many rows must not be scanned sequentially
+  private static final long LARGE_TABLE_ROWS = 10_000;
+
+  // GENERIC_PLAN needs Postgres 16
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("ecomm");
+
+  static {
+    POSTGRES.start();
+  }
+
+  private static final UUID CUSTOMER_ID = seededId("customer", 1);
+  private static final UUID CART_ID = seededId("cart", 1);
+
+  private static Set<String> largeTables;
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+  }
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private ItemRepository itemRepository;
+  @Autowired
+  private CartRepository cartRepository;
+  @Autowired
+  private OrderRepository orderRepository;
+  @Autowired
+  private CardRepository cardRepository;
+  @Autowired
+  private CustomerRepository customerRepository;
+  @Autowired
+  private UserRepository userRepository;
+  @Autowired
+  private UserTokenRepository userTokenRepository;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @BeforeEach
+  void seed() {
+    if (largeTables == null) {
+      new ResourceDatabasePopulator(new ClassPathResource("db/query-plan-seed.sql")).execute(dataSource);
+      largeTables = new HashSet<>(jdbcTemplate.queryForList(
+          "SELECT relname FROM pg_class WHERE relkind = 'r' AND reltuples >= ?",
+          String.class, LARGE_TABLE_ROWS));
+    }
+  }
+
+  @Test
+  @DisplayName("Cart items by customer")
+  void itemsByCustomer() {
+    assertNoSequentialScans(() -> itemRepository.findByCustomerId(CUSTOMER_ID));
+  }
+
+  @Test
+  @DisplayName("Removing items from a cart")
+  void deleteCartItems() {
+    assertNoSequentialScans(() ->
+        itemRepository.deleteCartItemJoinById(List.of(seededId("item", 50000)), CART_ID));
+  }
+
+  @Test
+  @DisplayName("Deleting items that were never ordered")
+  void deleteUnorderedItems() {
+    assertNoSequentialScans(() -> itemRepository.deleteUnorderedItemsByIds(
+        List.of(seededId("item", 150000), seededId("item", 150001))));
+  }
+
+  @Test
+  @DisplayName("Cart with items by customer")
+  void cartByCustomer() {
+    assertNoSequentialScans(() -> {
+      cartRepository.findByCustomerId(CUSTOMER_ID);
+      cartRepository.findCartAndItemsByCustomerId(CUSTOMER_ID);
+    });
+  }
+
+  @Test
+  @DisplayName("Checkout of a cart")
+  void checkout() {
+    assertNoSequentialScans(() -> orderRepository.insert(CUSTOMER_ID,
+        new OrderReq().addressId(seededId("address", 1)).cardId(seededId("card", 1))));
+  }
+
+  @Test
+  @DisplayName("Orders by customer")
+  void ordersByCustomer() {
+    assertNoSequentialScans(() -> orderRepository.findByCustomerId(CUSTOMER_ID)
+        .forEach(order -> order.getItems().size()));
+  }
+
+  @Test
+  @DisplayName("Card and username existence checks")
+  void existenceChecks() {
+    assertNoSequentialScans(() -> {
+      cardRepository.existsByCustomerIdAndNumber(CUSTOMER_ID, "0000000000000001");
+      customerRepository.existsByUsername("customer1");
+      userRepository.findByUsernameCount("user1");
+    });
+  }
+
+  @Test
+  @DisplayName("Login and refresh token lookups")
+  void userLookups() {
+    assertNoSequentialScans(() -> {
+      userRepository.findByUsername("user1");
+      userTokenRepository.findUserIdByValidTokenHash(new byte[32], Instant.now());
+      userTokenRepository.deleteByTokenHash(new byte[32]);
+      userTokenRepository.deleteByUserId(seededId("user", 1));
+    });
+  }
+
+  private void assertNoSequentialScans(Runnable repositoryCalls) {
+    CapturingStatementInspector.clear();
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      repositoryCalls.run();
+      entityManager.flush();
+      status.setRollbackOnly();
+    });
+
+    List<String> statements = CapturingStatementInspector.statements();
+    assertFalse(statements.isEmpty(), "No statements captured");
+    for (String sql : statements) {
+      JsonNode plan = explain(sql);
+      List<String> scanned = new ArrayList<>();
+      collectSequentialScans(plan.get(0).get("Plan"), scanned);
+      assertTrue(scanned.isEmpty(), () ->
+          "Sequential scan on " + scanned + " for:\n" + sql + "\n" + plan.toPrettyString());
+    }
+  }
+
+  private JsonNode explain(String sql) {
+    // JDBC placeholders to numbered parameters, which EXPLAIN (GENERIC_PLAN) accepts
+    StringBuilder numbered = new StringBuilder(sql.length() + 16);
+    int parameter = 0;
+    for (char c : sql.toCharArray()) {
+      if (c == '?') {
+        numbered.append('$').append(++parameter);
+      } else {
+        numbered.append(c);
+      }
+    }
+    String json = jdbcTemplate.queryForObject(
+        "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered, String.class);
+    try {
+      return objectMapper.readTree(json);
+    } catch (Exception e) {
+      throw new IllegalStateException("Unreadable plan for " + sql, e);
+    }
+  }
+
+  private static void collectSequentialScans(JsonNode node, List<String> scanned) {
+    if ("Seq Scan".equals(node.path("Node Type").asText())
+        && largeTables.contains(node.path("Relation Name").asText())) {
+      scanned.add(node.path("Relation Name").asText());
+    }
+    for (JsonNode child : node.path("Plans")) {
+      collectSequentialScans(child, scanned);
+    }
+  }
+
+  private static UUID seededId(String name, int number) {
+    // Matches md5(name || number)::uuid in query-plan-seed.sql
+    return SeededIds.of(name + number);
+  }
+}
@@ -0,0 +1,32 @@
+package com.example.ecommercedemo.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Ids of rows in the seed scripts, which derive them with {@code md5(name)::uuid} so related rows
+ * can be generated independently.
+ */
+final class SeededIds {
+
+  private SeededIds() {
+  }
+
+  static UUID of(String name) {
+    // Matches md5(name)::uuid
+    try {
+      byte[] md5 = MessageDigest.getInstance("MD5").digest(name.getBytes(StandardCharsets.UTF_8));
+      long msb = 0;
+      long lsb = 0;
+      for (int i = 0; i < 8; i++) {
+        msb = (msb << 8) | (md5[i] & 0xff);
+        lsb = (lsb << 8) | (md5[i + 8] & 0xff);
+      }
+      return new UUID(msb, lsb);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.ecommercedemo.persistence;
+
+import com.example.ecommercedemo.address.AddressMapper;
+import com.example.ecommercedemo.card.CardMapper;
+import com.example.ecommercedemo.cart.CartMapper;
+import com.example.ecommercedemo.cart.CartService;
+import com.example.ecommercedemo.cart.CartServiceImpl;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.item.ItemMapper;
+import com.example.ecommercedemo.model.OrderReq;
+import com.example.ecommercedemo.order.OrderMapper;
+import com.example.ecommercedemo.order.OrderService;
+import com.example.ecommercedemo.order.OrderServiceImpl;
+import com.example.ecommercedemo.payment.PaymentMapper;
+import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.shipment.ShipmentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Statement counts of the cart, order and checkout flows, from Hibernate statistics. Each flow runs
+ * for a customer with one item (and order) and for a customer with five; the counts must be the
+ * same, so a lazy association that is loaded row by row (N+1) fails the test. Products are never
+ * needed to map items, so none may be loaded. Order reads have a fetch plan, their counts are fixed.
+ * <p>
+ * Every flow runs in a transaction that is rolled back, so tests don't change the data set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CartServiceImpl.class, OrderServiceImpl.class, CartMapper.class, OrderMapper.class, ItemMapper.class,
+    CustomerMapper.class, AddressMapper.class, CardMapper.class, PaymentMapper.class, ShipmentMapper.class,
+    OptimisticLockRetry.class, SimpleMeterRegistry.class})
+class StatementCountIT {
+
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("ecomm");
+
+  static {
+    POSTGRES.start();
+  }
+
+  // Customer 1 has one item in the cart and one order, customer 2 five of each
+  private static final int SMALL = 1;
+  private static final int LARGE = 2;
+
+  private static boolean seeded;
+
+  @DynamicPropertySource
+  static void datasource(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+  }
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CartService cartService;
+  @Autowired
+  private OrderService orderService;
+
+  @BeforeEach
+  void seed() {
+    if (!seeded) {
+      new ResourceDatabasePopulator(new ClassPathResource("db/statement-count-seed.sql")).execute(dataSource);
+      seeded = true;
+    }
+  }
+
+  @Test
+  @DisplayName("Cart of a customer")
+  void cart() {
+    assertSameStatementCount(customer -> cartService.getCartByCustomerId(customerId(customer)));
+  }
+
+  @Test
+  @DisplayName("Cart items of a customer")
+  void cartItems() {
+    assertSameStatementCount(customer -> cartService.getCartItemsByCustomerId(customerId(customer)));
+  }
+
+  @Test
+  @DisplayName("Orders of a customer")
+  void orders() {
+    assertSameStatementCount(customer -> orderService.getOrdersByCustomerId(customerId(customer)));
+  }
+
+  @Test
+  @DisplayName("Order lists take a fixed number of statements")
+  void orderLists() {
+    // The orders joined with their customer, address, card, payment and shipment; all their items
+    assertEquals(2, statementCount(LARGE, customer -> orderService.getOrdersByCustomerId(customerId(customer))));
+    assertEquals(2, statementCount(LARGE, customer -> orderService.getAllOrders()));
+  }
+
+  @Test
+  @DisplayName("An order is read with one statement")
+  void orderDetail() {
+    assertEquals(1, statementCount(LARGE, customer -> orderService.getOrderById(SeededIds.of("order" + customer + "-1"))));
+  }
+
+  @Test
+  @DisplayName("Checkout of a cart")
+  void checkout() {
+    assertSameStatementCount(customer -> orderService.addOrder(customerId(customer), new OrderReq()
+        .addressId(SeededIds.of("address" + customer + "-1"))
+        .cardId(SeededIds.of("card" + customer + "-1"))));
+  }
+
+  private void assertSameStatementCount(IntConsumer flow) {
+    long small = statementCount(SMALL, flow);
+    long large = statementCount(LARGE, flow);
+    assertEquals(small, large, "Statements for one item or order vs five");
+  }
+
+  private long statementCount(int customer, IntConsumer flow) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      flow.accept(customer);
+      status.setRollbackOnly();
+    });
+
+    assertEquals(0, statistics.getEntityStatistics(ProductEntity.class.getName()).getLoadCount(),
+        "Products loaded");
+    return statistics.getPrepareStatementCount();
+  }
+
+  private static UUID customerId(int number) {
+    return SeededIds.of("customer" + number);
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.ecommercedemo.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insert throughput of random (v4) against time-ordered (v7) UUID primary keys.
+ * <p>
+ * Runs the Flyway migrations on a throwaway Postgres and fills two tables shaped like
+ * {@code ecomm.order_item}, one per id default. The server runs with small shared buffers and
+ * frequent checkpoints, so the primary key index outgrows the cache as it would on a busy
+ * database. Reports elapsed time, WAL volume and index size per scheme.
+ * <p>
+ * Tagged {@code benchmark}, run with {@code ./gradlew integrationTest -Pbenchmarks}.
+ */
+@Tag("benchmark")
+class UuidInsertBenchmarkIT {
+
+  private final static Logger log = LoggerFactory.getLogger(UuidInsertBenchmarkIT.class);
+
+  private static final int ROWS = 1_000_000;
+  private static final int ROWS_PER_STATEMENT = 10_000;
+
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("ecomm")
+          .withCommand("postgres", "-c", "shared_buffers=16MB", "-c", "max_wal_size=64MB");
+
+  @BeforeAll
+  static void startDatabase() {
+    POSTGRES.start();
+    Flyway.configure()
+        .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+        .schemas("ecomm")
+        .load()
+        .migrate();
+  }
+
+  @AfterAll
+  static void stopDatabase() {
+    POSTGRES.stop();
+  }
+
+  @Test
+  @DisplayName("Time-ordered ids keep the primary key index compact")
+  void compareIdSchemes() throws SQLException {
+    try (Connection connection = connect()) {
+      Result v4 = insert(connection, "bench_uuid_v4", "gen_random_uuid()");
+      Result v7 = insert(connection, "bench_uuid_v7", "ecomm.uuid_generate_v7()");
+
+      log.info("{}", v4);
+      log.info("{}", v7);
+
+      // Appending keeps leaf pages full; random keys split pages and leave them about 70% full
+      assertTrue(v7.indexBytes() < v4.indexBytes(), v7 + " vs " + v4);
+    }
+  }
+
+  private static Result insert(Connection connection, String table, String idDefault)
+      throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(
+          "CREATE TABLE ecomm." + table + " ("
+              + "id uuid NOT NULL DEFAULT " + idDefault + ", "
+              + "order_id uuid NOT NULL, "
+              + "item_id uuid NOT NULL, "
+              + "PRIMARY KEY (id))");
+      statement.execute("CHECKPOINT");
+      String walStart = queryString(statement, "SELECT pg_current_wal_insert_lsn()");
+
+      long start = System.nanoTime();
+      for (int inserted = 0; inserted < ROWS; inserted += ROWS_PER_STATEMENT) {
+        statement.execute(
+            "INSERT INTO ecomm." + table + " (order_id, item_id) "
+                + "SELECT gen_random_uuid(), gen_random_uuid() "
+                + "FROM generate_series(1, " + ROWS_PER_STATEMENT + ")");
+      }
+      long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+      long walBytes = queryLong(
+          statement, "SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), '" + walStart + "')");
+      long indexBytes = queryLong(
+          statement, "SELECT pg_relation_size('ecomm." + table + "_pkey')");
+      return new Result(table, elapsedMillis, walBytes, indexBytes);
+    }
+  }
+
+  private static Connection connect() throws SQLException {
+    Connection connection = DriverManager.getConnection(
+        POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    connection.setAutoCommit(true);
+    return connection;
+  }
+
+  private static String queryString(Statement statement, String sql) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      resultSet.next();
+      return resultSet.getString(1);
+    }
+  }
+
+  private static long queryLong(Statement statement, String sql) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(sql)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  private record Result(String table, long elapsedMillis, long walBytes, long indexBytes) {
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: %,d rows in %,d ms (%,.0f rows/s), WAL %,d kB, primary key index %,d kB",
+          table, ROWS, elapsedMillis, ROWS * 1000.0 / Math.max(elapsedMillis, 1),
+          walBytes / 1024, indexBytes / 1024);
+    }
+  }
+}
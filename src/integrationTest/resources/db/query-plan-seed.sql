@@ -0,0 +1,50 @@
+-- Volume for QueryPlanIT: enough rows that the planner prefers an index wherever one fits.
+-- Ids are md5 hashes of a name and a number, so related rows can be generated independently.
+INSERT INTO ecomm.customer (id, username, first_name, last_name, email, phone, status)
+SELECT md5('customer' || g)::uuid, 'customer' || g, 'First', 'Last', 'c' || g || '@test.com', '123456789', 'ACTIVE'
+FROM generate_series(1, 50000) g;
+
+INSERT INTO ecomm."user" (id, customer_id, username, password, role)
+SELECT md5('user' || g)::uuid, md5('customer' || g)::uuid, 'user' || g, '{noop}password', 'USER'
+FROM generate_series(1, 50000) g;
+
+INSERT INTO ecomm.user_token (id, token_hash, expires_at, user_id)
+SELECT md5('token' || g)::uuid, sha256(convert_to('refresh' || g, 'UTF8')), now() + interval '7 days', md5('user' || g)::uuid
+FROM generate_series(1, 50000) g;
+
+INSERT INTO ecomm.address (id, number, street, city, country, zipcode, customer_id)
+SELECT md5('address' || g)::uuid, g::text, 'Street', 'City', 'Country', '12345', md5('customer' || g)::uuid
+FROM generate_series(1, 50000) g;
+
+INSERT INTO ecomm.card (id, number, customer_id, last_name, expires, cvv)
+SELECT md5('card' || g)::uuid, lpad(g::text, 16, '0'), md5('customer' || g)::uuid, 'Last', '12/30', '123'
+FROM generate_series(1, 50000) g;
+
+INSERT INTO ecomm.product (id, name, description, price, count)
+SELECT md5('product' || g)::uuid, 'Product ' || g, 'Description', 10, 100
+FROM generate_series(1, 1000) g;
+
+INSERT INTO ecomm.item (id, product_id, quantity, unit_price)
+SELECT md5('item' || g)::uuid, md5('product' || (g % 1000 + 1))::uuid, 1, 10
+FROM generate_series(1, 200000) g;
+
+INSERT INTO ecomm.cart (id, customer_id)
+SELECT md5('cart' || g)::uuid, md5('customer' || g)::uuid
+FROM generate_series(1, 50000) g;
+
+-- Items 1..100000 are in carts, two per customer
+INSERT INTO ecomm.cart_item (cart_id, item_id)
+SELECT md5('cart' || (g % 50000 + 1))::uuid, md5('item' || g)::uuid
+FROM generate_series(1, 100000) g;
+
+INSERT INTO ecomm.orders (id, customer_id, address_id, card_id, order_date, total, status)
+SELECT md5('order' || g)::uuid, md5('customer' || g)::uuid, md5('address' || g)::uuid, md5('card' || g)::uuid,
+       now(), 20, 'CREATED'
+FROM generate_series(1, 50000) g;
+
+-- Items 100001..200000 are ordered, two per order
+INSERT INTO ecomm.order_item (order_id, item_id)
+SELECT md5('order' || (g % 50000 + 1))::uuid, md5('item' || (100000 + g))::uuid
+FROM generate_series(1, 100000) g;
+
+ANALYZE;
@@ -0,0 +1,48 @@
+-- Data for StatementCountIT: customer 1 has one cart item and one order, customer 2 has five of
+-- each. Every order has its own address and card and every item its own product, so a query per
+-- row shows up as a difference in statement count between the two customers.
+INSERT INTO ecomm.product (id, name, description, price, count)
+SELECT md5('product' || p)::uuid, 'Product ' || p, 'Description', 10, 100
+FROM generate_series(1, 5) p;
+
+INSERT INTO ecomm.customer (id, username, first_name, last_name, email, phone, status)
+SELECT md5('customer' || c)::uuid, 'customer' || c, 'First', 'Last', 'c' || c || '@test.com', '123456789', 'ACTIVE'
+FROM generate_series(1, 2) c;
+
+CREATE TEMPORARY TABLE seed_size AS
+SELECT c, CASE c WHEN 1 THEN 1 ELSE 5 END AS n FROM generate_series(1, 2) c;
+
+INSERT INTO ecomm.address (id, number, street, city, country, zipcode, customer_id)
+SELECT md5('address' || c || '-' || o)::uuid, o::text, 'Street', 'City', 'Country', '12345', md5('customer' || c)::uuid
+FROM seed_size, generate_series(1, n) o;
+
+INSERT INTO ecomm.card (id, number, customer_id, last_name, expires, cvv)
+SELECT md5('card' || c || '-' || o)::uuid, lpad((c * 100 + o)::text, 16, '0'), md5('customer' || c)::uuid, 'Last', '12/30', '123'
+FROM seed_size, generate_series(1, n) o;
+
+INSERT INTO ecomm.cart (id, customer_id)
+SELECT md5('cart' || c)::uuid, md5('customer' || c)::uuid
+FROM seed_size;
+
+INSERT INTO ecomm.item (id, product_id, quantity, unit_price)
+SELECT md5('cart-item' || c || '-' || i)::uuid, md5('product' || i)::uuid, 1, 10
+FROM seed_size, generate_series(1, n) i;
+
+INSERT INTO ecomm.cart_item (cart_id, item_id)
+SELECT md5('cart' || c)::uuid, md5('cart-item' || c || '-' || i)::uuid
+FROM seed_size, generate_series(1, n) i;
+
+INSERT INTO ecomm.orders (id, customer_id, address_id, card_id, order_date, total, status)
+SELECT md5('order' || c || '-' || o)::uuid, md5('customer' || c)::uuid, md5('address' || c || '-' || o)::uuid,
+       md5('card' || c || '-' || o)::uuid, now(), n * 10, 'CREATED'
+FROM seed_size, generate_series(1, n) o;
+
+INSERT INTO ecomm.item (id, product_id, quantity, unit_price)
+SELECT md5('order-item' || c || '-' || o || '-' || i)::uuid, md5('product' || i)::uuid, 1, 10
+FROM seed_size, generate_series(1, n) o, generate_series(1, n) i;
+
+INSERT INTO ecomm.order_item (order_id, item_id)
+SELECT md5('order' || c || '-' || o)::uuid, md5('order-item' || c || '-' || o || '-' || i)::uuid
+FROM seed_size, generate_series(1, n) o, generate_series(1, n) i;
+
+DROP TABLE seed_size;
@@ -0,0 +1,156 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.address.AddressMapper;
+import com.example.ecommercedemo.address.AddressRepresentationModelAssembler;
+import com.example.ecommercedemo.card.CardMapper;
+import com.example.ecommercedemo.card.CardRepresentationModelAssembler;
+import com.example.ecommercedemo.cart.CartMapper;
+import com.example.ecommercedemo.cart.CartRepresentationModelAssembler;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.customer.CustomerRepresentationModelAssembler;
+import com.example.ecommercedemo.item.ItemMapper;
+import com.example.ecommercedemo.item.ItemRepresentationModelAssembler;
+import com.example.ecommercedemo.model.*;
+import com.example.ecommercedemo.order.OrderMapper;
+import com.example.ecommercedemo.order.OrderRepresentationModelAssembler;
+import com.example.ecommercedemo.payment.AuthorizationMapper;
+import com.example.ecommercedemo.payment.AuthorizationRepresentationModelAssembler;
+import com.example.ecommercedemo.payment.PaymentMapper;
+import com.example.ecommercedemo.payment.PaymentRepresentationModelAssembler;
+import com.example.ecommercedemo.product.ProductMapper;
+import com.example.ecommercedemo.product.ProductRepresentationModelAssembler;
+import com.example.ecommercedemo.shipment.ShipmentMapper;
+import com.example.ecommercedemo.shipment.ShipmentRepresentationModelAssembler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HATEOAS link building of every assembler. A mock request is bound to the benchmark thread so
+ * links are built from the request like in production. Assemblers add links to the model they are
+ * given, so each operation first strips the links of the previous one; that cost is negligible
+ * compared to {@code linkTo(methodOn(...))}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AssemblerBenchmark {
+
+  @Param({"1", "50", "500"})
+  public int size;
+
+  private final AddressRepresentationModelAssembler addressAssembler = new AddressRepresentationModelAssembler();
+  private final AuthorizationRepresentationModelAssembler authorizationAssembler = new AuthorizationRepresentationModelAssembler();
+  private final CardRepresentationModelAssembler cardAssembler = new CardRepresentationModelAssembler();
+  private final CartRepresentationModelAssembler cartAssembler = new CartRepresentationModelAssembler();
+  private final CustomerRepresentationModelAssembler customerAssembler = new CustomerRepresentationModelAssembler();
+  private final ItemRepresentationModelAssembler itemAssembler = new ItemRepresentationModelAssembler();
+  private final OrderRepresentationModelAssembler orderAssembler = new OrderRepresentationModelAssembler();
+  private final PaymentRepresentationModelAssembler paymentAssembler = new PaymentRepresentationModelAssembler();
+  private final ProductRepresentationModelAssembler productAssembler = new ProductRepresentationModelAssembler();
+  private final ShipmentRepresentationModelAssembler shipmentAssembler = new ShipmentRepresentationModelAssembler();
+
+  private Address address;
+  private Authorization authorization;
+  private Card card;
+  private Cart cart;
+  private Customer customer;
+  private List<Item> items;
+  private Order order;
+  private Payment payment;
+  private List<Product> products;
+  private Shipment shipment;
+
+  @Setup
+  public void setUp() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+    request.setServerName("shop.example.com");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+    ItemMapper itemMapper = new ItemMapper();
+    var customerEntity = Fixtures.customer();
+    var orderEntity = Fixtures.order(size);
+    address = new AddressMapper().entityToModel(Fixtures.address(customerEntity));
+    authorization = new AuthorizationMapper().entityToModel(orderEntity.getAuthorizationEntity());
+    card = new CardMapper().entityToModel(Fixtures.card(customerEntity));
+    cart = new CartMapper(itemMapper).entityToModel(Fixtures.cart(customerEntity, size));
+    customer = new CustomerMapper().entityToModel(customerEntity);
+    items = itemMapper.entityToModelList(Fixtures.items(size));
+    order = new OrderMapper(new CustomerMapper(), new AddressMapper(), new CardMapper(), new PaymentMapper(),
+        new ShipmentMapper(), itemMapper).entityToModel(orderEntity);
+    payment = new PaymentMapper().entityToModel(orderEntity.getPaymentEntity());
+    products = new ProductMapper().entityToModelList(Fixtures.products(size));
+    shipment = new ShipmentMapper().entityToModel(orderEntity.getShipment());
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public Address address() {
+    return addressAssembler.toModel(reset(address));
+  }
+
+  @Benchmark
+  public Authorization authorization() {
+    return authorizationAssembler.toModel(reset(authorization));
+  }
+
+  @Benchmark
+  public Card card() {
+    return cardAssembler.toModel(reset(card));
+  }
+
+  @Benchmark
+  public Cart cart() {
+    return cartAssembler.toModel(reset(cart));
+  }
+
+  @Benchmark
+  public Customer customer() {
+    return customerAssembler.toModel(reset(customer));
+  }
+
+  @Benchmark
+  public List<Item> itemList() {
+    items.forEach(AssemblerBenchmark::reset);
+    return itemAssembler.toModelList(items, cart.getCustomerId());
+  }
+
+  @Benchmark
+  public Order order() {
+    reset(order.getCustomer());
+    reset(order.getAddress());
+    reset(order.getCard());
+    order.getItems().forEach(AssemblerBenchmark::reset);
+    return orderAssembler.toModel(reset(order));
+  }
+
+  @Benchmark
+  public Payment payment() {
+    return paymentAssembler.toModel(reset(payment));
+  }
+
+  @Benchmark
+  public List<Product> productList() {
+    products.forEach(AssemblerBenchmark::reset);
+    return productAssembler.toModelList(products);
+  }
+
+  @Benchmark
+  public Shipment shipment() {
+    return shipmentAssembler.toModel(reset(shipment));
+  }
+
+  private static <T extends RepresentationModel<?>> T reset(T model) {
+    model.removeLinks();
+    return model;
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.address.AddressEntity;
+import com.example.ecommercedemo.card.CardEntity;
+import com.example.ecommercedemo.cart.CartEntity;
+import com.example.ecommercedemo.customer.CustomerEntity;
+import com.example.ecommercedemo.item.ItemEntity;
+import com.example.ecommercedemo.model.Order;
+import com.example.ecommercedemo.order.OrderEntity;
+import com.example.ecommercedemo.payment.AuthorizationEntity;
+import com.example.ecommercedemo.payment.PaymentEntity;
+import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.product.TagEntity;
+import com.example.ecommercedemo.shipment.ShipmentEntity;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entity graphs of realistic shape shared by the benchmarks.
+ */
+final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  static ProductEntity product(int i) {
+    ProductEntity product = new ProductEntity();
+    product.setId(UUID.randomUUID())
+        .setName("Product " + i)
+        .setDescription("Description of product " + i)
+        .setPrice(new BigDecimal("19.9900"))
+        .setCount(100)
+        .setImageUrl("/images/" + i + ".png")
+        .setTags(List.of(
+            new TagEntity().setId(UUID.randomUUID()).setName("books"),
+            new TagEntity().setId(UUID.randomUUID()).setName("sale")));
+    return product;
+  }
+
+  static List<ProductEntity> products(int count) {
+    List<ProductEntity> products = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      products.add(product(i));
+    }
+    return products;
+  }
+
+  static CustomerEntity customer() {
+    CustomerEntity customer = new CustomerEntity();
+    customer.setId(UUID.randomUUID())
+        .setUsername("scott")
+        .setFirstName("Bruce")
+        .setLastName("Scott")
+        .setEmail("bruce@scott.db")
+        .setPhone("234234234")
+        .setStatus("ACTIVE");
+    return customer;
+  }
+
+  static AddressEntity address(CustomerEntity customer) {
+    return new AddressEntity().setId(UUID.randomUUID()).setNumber("12").setResidency("Flat 1")
+        .setStreet("Main Street").setCity("Utrecht").setState("UT").setCountry("NL")
+        .setZipcode("3511AA").setCustomer(customer);
+  }
+
+  static CardEntity card(CustomerEntity customer) {
+    return new CardEntity().setId(UUID.randomUUID()).setNumber("4111111111111111")
+        .setExpires("12/30").setCvv("123").setCustomer(customer);
+  }
+
+  static List<ItemEntity> items(int count) {
+    List<ItemEntity> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      items.add(new ItemEntity().setId(UUID.randomUUID()).setProduct(product(i))
+          .setPrice(new BigDecimal("19.9900")).setQuantity(1 + i % 5));
+    }
+    return items;
+  }
+
+  static CartEntity cart(CustomerEntity customer, int itemCount) {
+    return new CartEntity().setId(UUID.randomUUID()).setCustomer(customer).setItems(items(itemCount));
+  }
+
+  static OrderEntity order(int itemCount) {
+    CustomerEntity customer = customer();
+    return new OrderEntity()
+        .setId(UUID.randomUUID())
+        .setCustomerEntity(customer)
+        .setAddressEntity(address(customer))
+        .setCardEntity(card(customer))
+        .setPaymentEntity(new PaymentEntity().setId(UUID.randomUUID()).setAuthorized(true).setMessage("OK"))
+        .setShipment(new ShipmentEntity().setId(UUID.randomUUID()).setCarrier("PostNL"))
+        .setAuthorizationEntity(new AuthorizationEntity().setId(UUID.randomUUID()).setAuthorized(true))
+        .setOrderDate(Timestamp.from(Instant.now()))
+        .setStatus(Order.StatusEnum.CREATED)
+        .setTotal(new BigDecimal("1234.5000"))
+        .setItems(items(itemCount));
+  }
+}
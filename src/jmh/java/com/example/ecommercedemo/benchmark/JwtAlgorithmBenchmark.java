@@ -0,0 +1,58 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.auth.JwtKeys;
+import com.example.ecommercedemo.auth.JwtManager;
+import com.example.ecommercedemo.auth.JwtSigningAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of minting (sign-in, refresh) and verifying (every request without a cached token) an access
+ * token per signing algorithm, with the keys of the application keystore: a 4096 bit RSA key for
+ * RS256 and a P-256 key for ES256.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtAlgorithmBenchmark {
+
+  @Param({"RS256", "ES256"})
+  private JwtSigningAlgorithm algorithm;
+
+  private JwtManager jwtManager;
+  private JwtDecoder decoder;
+  private UserDetails principal;
+  private String token;
+
+  @Setup
+  public void setUp() throws Exception {
+    KeyStore keyStore = KeyStore.getInstance("PKCS12");
+    try (InputStream in = getClass().getResourceAsStream("/jwt-keystore.jks")) {
+      keyStore.load(in, "password".toCharArray());
+    }
+    String alias = algorithm == JwtSigningAlgorithm.ES256 ? "jwt-ec-sign-key" : "jwt-sign-key";
+    JwtKeys keys = JwtKeys.fromKeyStore(keyStore, algorithm, alias, "password".toCharArray(), List.of());
+    jwtManager = new JwtManager(keys);
+    decoder = keys.decoder();
+    principal = User.builder().username("scott").password("{noop}tiger").authorities("ROLE_USER").build();
+    token = jwtManager.create(principal);
+  }
+
+  @Benchmark
+  public String mint() {
+    return jwtManager.create(principal);
+  }
+
+  @Benchmark
+  public Jwt verify() {
+    return decoder.decode(token);
+  }
+}
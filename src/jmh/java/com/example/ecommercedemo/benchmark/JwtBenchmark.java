@@ -0,0 +1,67 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.ecommercedemo.auth.JwtKeys;
+import com.example.ecommercedemo.auth.JwtManager;
+import com.example.ecommercedemo.auth.JwtSigningAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ecommercedemo.auth.Constants.EXPIRATION_TIME;
+import static com.example.ecommercedemo.auth.Constants.ROLE_CLAIM;
+
+/**
+ * Tokens issued on sign-in and refresh: {@link JwtManager} against building each token with
+ * {@code JWT.create()} and a new {@link Algorithm}, as before. Both sign with RS256 and a 2048 bit
+ * key. Runs on a single thread, so the score is tokens per second per core. See
+ * {@link JwtAlgorithmBenchmark} for the cost per signing algorithm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+  private RSAPrivateKey privateKey;
+  private RSAPublicKey publicKey;
+  private JwtManager jwtManager;
+  private UserDetails principal;
+
+  @Setup
+  public void setUp() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair keyPair = generator.generateKeyPair();
+    privateKey = (RSAPrivateKey) keyPair.getPrivate();
+    publicKey = (RSAPublicKey) keyPair.getPublic();
+    jwtManager = new JwtManager(new JwtKeys(JwtSigningAlgorithm.RS256, "benchmark", privateKey, publicKey, List.of()));
+    principal = User.builder().username("scott").password("{noop}tiger").authorities("ROLE_USER").build();
+  }
+
+  @Benchmark
+  public String jwtBuilder() {
+    final long now = System.currentTimeMillis();
+    return JWT.create()
+        .withIssuer("Modern API Development with Spring and Spring Boot")
+        .withSubject(principal.getUsername())
+        .withClaim(ROLE_CLAIM, principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+        .withIssuedAt(new Date(now))
+        .withExpiresAt(new Date(now + EXPIRATION_TIME))
+        .sign(Algorithm.RSA256(publicKey, privateKey));
+  }
+
+  @Benchmark
+  public String jwtManager() {
+    return jwtManager.create(principal);
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.cart.CartController;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Cost of one link with two path variables: {@code linkTo(methodOn(...))} per call against an
+ * expanded {@link LinkTemplate}. Run {@link AssemblerBenchmark} for the effect per assembler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LinkTemplateBenchmark {
+
+  private static final LinkTemplate CART_ITEM =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCartItemByProductId(arg(0), arg(1)));
+
+  private final UUID customerId = UUID.randomUUID();
+  private final UUID productId = UUID.randomUUID();
+
+  @Setup
+  public void setUp() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+    request.setServerName("shop.example.com");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public Link linkToMethodOn() {
+    return linkTo(methodOn(CartController.class).getCustomerCartItemByProductId(customerId, productId)).withSelfRel();
+  }
+
+  @Benchmark
+  public Link linkTemplate() {
+    return CART_ITEM.selfLink(customerId, productId);
+  }
+}
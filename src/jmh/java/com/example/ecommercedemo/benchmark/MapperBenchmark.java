@@ -0,0 +1,64 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.customer.CustomerEntity;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.model.Customer;
+import com.example.ecommercedemo.model.Product;
+import com.example.ecommercedemo.model.Tag;
+import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.product.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the explicit mappers with the previous {@link BeanUtils#copyProperties} based
+ * implementation, which is kept here as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+  private final ProductMapper productMapper = new ProductMapper();
+  private final CustomerMapper customerMapper = new CustomerMapper();
+
+  private ProductEntity product;
+  private CustomerEntity customer;
+
+  @Setup
+  public void setUp() {
+    product = Fixtures.product(0);
+    customer = Fixtures.customer();
+  }
+
+  @Benchmark
+  public Product productExplicit() {
+    return productMapper.entityToModel(product);
+  }
+
+  @Benchmark
+  public Product productBeanUtils() {
+    Product resource = new Product();
+    BeanUtils.copyProperties(product, resource);
+    resource.setId(product.getId());
+    resource.setPrice(product.getPrice().toString());
+    resource.setTag(
+        product.getTags().stream().map(t -> new Tag().id(t.getId()).name(t.getName())).toList());
+    return resource;
+  }
+
+  @Benchmark
+  public Customer customerExplicit() {
+    return customerMapper.entityToModel(customer);
+  }
+
+  @Benchmark
+  public Customer customerBeanUtils() {
+    Customer resource = new Customer();
+    BeanUtils.copyProperties(customer, resource);
+    resource.setId(customer.getId());
+    return resource;
+  }
+}
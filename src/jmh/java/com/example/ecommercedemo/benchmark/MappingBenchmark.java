@@ -0,0 +1,75 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.address.AddressMapper;
+import com.example.ecommercedemo.card.CardMapper;
+import com.example.ecommercedemo.cart.CartEntity;
+import com.example.ecommercedemo.cart.CartMapper;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.item.ItemEntity;
+import com.example.ecommercedemo.item.ItemMapper;
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Item;
+import com.example.ecommercedemo.model.Order;
+import com.example.ecommercedemo.model.Product;
+import com.example.ecommercedemo.order.OrderEntity;
+import com.example.ecommercedemo.order.OrderMapper;
+import com.example.ecommercedemo.payment.PaymentMapper;
+import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.product.ProductMapper;
+import com.example.ecommercedemo.shipment.ShipmentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to model mapping of the per-request paths, for orders, carts and pages of 1, 50 and 500
+ * elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+  @Param({"1", "50", "500"})
+  public int size;
+
+  private final ItemMapper itemMapper = new ItemMapper();
+  private final ProductMapper productMapper = new ProductMapper();
+  private final CartMapper cartMapper = new CartMapper(itemMapper);
+  private final OrderMapper orderMapper = new OrderMapper(new CustomerMapper(), new AddressMapper(),
+      new CardMapper(), new PaymentMapper(), new ShipmentMapper(), itemMapper);
+
+  private OrderEntity order;
+  private CartEntity cart;
+  private List<ItemEntity> items;
+  private List<ProductEntity> products;
+
+  @Setup
+  public void setUp() {
+    order = Fixtures.order(size);
+    cart = Fixtures.cart(Fixtures.customer(), size);
+    items = Fixtures.items(size);
+    products = Fixtures.products(size);
+  }
+
+  @Benchmark
+  public Order orderMapperEntityToModel() {
+    return orderMapper.entityToModel(order);
+  }
+
+  @Benchmark
+  public Cart cartMapperEntityToModel() {
+    return cartMapper.entityToModel(cart);
+  }
+
+  @Benchmark
+  public List<Item> itemMapperEntityToModelList() {
+    return itemMapper.entityToModelList(items);
+  }
+
+  @Benchmark
+  public List<Product> productMapperEntityToModelList() {
+    return productMapper.entityToModelList(products);
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.ecommercedemo.benchmark;
+
+import com.example.ecommercedemo.address.AddressMapper;
+import com.example.ecommercedemo.card.CardMapper;
+import com.example.ecommercedemo.cart.CartMapper;
+import com.example.ecommercedemo.customer.CustomerMapper;
+import com.example.ecommercedemo.item.ItemMapper;
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Order;
+import com.example.ecommercedemo.model.Product;
+import com.example.ecommercedemo.order.OrderMapper;
+import com.example.ecommercedemo.payment.PaymentMapper;
+import com.example.ecommercedemo.product.ProductMapper;
+import com.example.ecommercedemo.shipment.ShipmentMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the generated models, configured like the application's
+ * {@code ObjectMapper} bean.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+  @Param({"1", "50", "500"})
+  public int size;
+
+  private ObjectWriter writer;
+  private Order order;
+  private Cart cart;
+  private List<Product> products;
+
+  @Setup
+  public void setUp() {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.registerModule(new JavaTimeModule());
+    mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    writer = mapper.writer();
+
+    ItemMapper itemMapper = new ItemMapper();
+    order = new OrderMapper(new CustomerMapper(), new AddressMapper(), new CardMapper(), new PaymentMapper(),
+        new ShipmentMapper(), itemMapper).entityToModel(Fixtures.order(size));
+    cart = new CartMapper(itemMapper).entityToModel(Fixtures.cart(Fixtures.customer(), size));
+    products = new ProductMapper().entityToModelList(Fixtures.products(size));
+  }
+
+  @Benchmark
+  public byte[] order() throws JsonProcessingException {
+    return writer.writeValueAsBytes(order);
+  }
+
+  @Benchmark
+  public byte[] cart() throws JsonProcessingException {
+    return writer.writeValueAsBytes(cart);
+  }
+
+  @Benchmark
+  public byte[] productList() throws JsonProcessingException {
+    return writer.writeValueAsBytes(products);
+  }
+}
@@ -9,7 +9,7 @@ import io.swagger.v3.oas.annotations.servers.Server;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -62,12 +62,8 @@ import static com.example.ecommercedemo.auth.Constants.ENCODER_ID;
     }
 )
 @Configuration
+@EnableScheduling
 public class AppConfig {
-  @Bean
-  public ShallowEtagHeaderFilter shallowEtagHeaderFilter() {
-    return new ShallowEtagHeaderFilter();
-  }
-
   @Bean
   public PasswordEncoder passwordEncoder() {
     // Supports other password encoding, a must for existing applications.
@@ -3,6 +3,7 @@ package com.example.ecommercedemo.address;
 import com.example.ecommercedemo.customer.CustomerEntity;
 import com.example.ecommercedemo.order.OrderEntity;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -20,7 +21,7 @@ import java.util.UUID;
 @Accessors(chain = true) // Enable fluent api, makes the setters return 'this'
 public class AddressEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -2,7 +2,6 @@ package com.example.ecommercedemo.address;
 
 import com.example.ecommercedemo.model.Address;
 import com.example.ecommercedemo.model.AddressReq;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -16,10 +15,15 @@ public class AddressMapper {
     }
     Address resource = new Address();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setId(entity.getId());
-    resource.setCustomerId(entity.getCustomer().getId());
+    resource.id(entity.getId())
+        .number(entity.getNumber())
+        .residency(entity.getResidency())
+        .street(entity.getStreet())
+        .city(entity.getCity())
+        .state(entity.getState())
+        .country(entity.getCountry())
+        .zipcode(entity.getZipcode())
+        .customerId(entity.getCustomer().getId());
 
     return resource;
   }
@@ -1,8 +1,15 @@
 package com.example.ecommercedemo.address;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface AddressRepository extends JpaRepository<AddressEntity, UUID> {
+  // Keyset page, see KeysetPage
+  @Query("select a from AddressEntity a where a.id > :after order by a.id")
+  List<AddressEntity> findPageAfter(@Param("after") UUID after, Pageable pageable);
 }
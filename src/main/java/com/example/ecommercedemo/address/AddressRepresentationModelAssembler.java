@@ -2,12 +2,13 @@ package com.example.ecommercedemo.address;
 
 import com.example.ecommercedemo.customer.CustomerController;
 import com.example.ecommercedemo.model.Address;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
@@ -16,6 +17,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AddressRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Address, Address> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(AddressController.class).getAddressById(arg(0)));
+  private static final LinkTemplate CUSTOMER =
+      LinkTemplate.of(methodOn(CustomerController.class).getCustomerById(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -33,17 +39,9 @@ public class AddressRepresentationModelAssembler extends
   public Address toModel(Address resource) {
 
     // Add HATEOAS links
-    resource.add(
-        linkTo(methodOn(AddressController.class)
-            .getAddressById(resource.getId()))
-            .withSelfRel()
-    );
-
-    resource.add(
-        linkTo(methodOn(CustomerController.class)
-            .getCustomerById(resource.getCustomerId()))
-        .withRel("customer")
-    );
+    resource.add(SELF.selfLink(resource.getId()));
+
+    resource.add(CUSTOMER.link("customer", resource.getCustomerId()));
 
     return resource;
   }
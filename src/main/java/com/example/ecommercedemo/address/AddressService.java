@@ -4,6 +4,7 @@ import com.example.ecommercedemo.model.AddressReq;
 import com.example.ecommercedemo.model.Address;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,7 @@ import java.util.UUID;
 public interface AddressService {
   Address createAddress(@NotNull(message = "Customer UUID cannot be null.") UUID customerId, @Valid AddressReq addressReq);
   List<Address> getAllAddresses();
+  Slice<Address> getAddressesAfter(@NotNull(message = "Cursor UUID cannot be null.") UUID after, int limit);
   Optional<Address> getAddressById(@NotNull(message = "Address UUID cannot be null.") UUID AddressId);
   List<Address> getAddressesByCustomerId(@NotNull(message = "Customer UUID cannot be null.") UUID customerId);
   void deleteAddressById(@NotNull(message = "Address UUID cannot be null.") UUID AddressId);
@@ -6,8 +6,10 @@ import com.example.ecommercedemo.exception.ErrorCode;
 import com.example.ecommercedemo.model.Address;
 import com.example.ecommercedemo.model.AddressReq;
 import com.example.ecommercedemo.customer.CustomerRepository;
+import com.example.ecommercedemo.persistence.KeysetPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -35,7 +37,7 @@ public class AddressServiceImpl implements AddressService {
   @Override
   @Transactional
   public Address createAddress(UUID customerId, AddressReq addressReq) {
-    LOGGER.info("Creating address with customer id {}", customerId);
+    LOGGER.debug("Creating address with customer id {}", customerId);
 
     // --- VALIDATION ---
     if (addressReq == null) {
@@ -76,6 +78,13 @@ public class AddressServiceImpl implements AddressService {
     return addressMapper.entityToModelList(addressRepository.findAll());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<Address> getAddressesAfter(UUID after, int limit) {
+    return KeysetPage.of(addressRepository.findPageAfter(after, KeysetPage.request(limit)), limit)
+        .map(addressMapper::entityToModel);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Optional<Address> getAddressById(UUID AddressId) {
@@ -10,14 +10,20 @@ import com.example.ecommercedemo.address.AddressService;
 import com.example.ecommercedemo.card.CardService;
 import com.example.ecommercedemo.order.OrderService;
 import com.example.ecommercedemo.customer.CustomerService;
+import com.example.ecommercedemo.persistence.KeysetPage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
 @RestController
 @Validated
@@ -45,22 +51,36 @@ public class AdminController implements AdminApi {
 //    this.orderAssembler = orderAssembler;
 //  }
 
+  // Without a limit the full lists are returned, as before paging was added. Large tables should be
+  // paged, or streamed with AdminExportController
   @Override
-  public ResponseEntity<List<Address>> getAllAddresses () {
+  public ResponseEntity<List<Address>> getAllAddresses(UUID after, Integer limit) {
+    if (limit != null) {
+      Slice<Address> page = addressService.getAddressesAfter(cursor(after), limit);
+      return page(page, addressAssembler.toModelList(page.getContent()), Address::getId);
+    }
     return ResponseEntity.ok(Optional.ofNullable(addressService.getAllAddresses())
         .map(addressAssembler::toModelList)
         .orElse(List.of()));
   }
 
   @Override
-  public ResponseEntity<List<Card>> getAllCards () {
+  public ResponseEntity<List<Card>> getAllCards(UUID after, Integer limit) {
+    if (limit != null) {
+      Slice<Card> page = cardService.getCardsAfter(cursor(after), limit);
+      return page(page, cardAssembler.toModelList(page.getContent()), Card::getId);
+    }
     return ResponseEntity.ok(Optional.ofNullable(cardService.getAllCards())
         .map(cardAssembler::toModelList)
         .orElse(List.of()));
   }
 
   @Override
-  public ResponseEntity<List<Customer>> getAllCustomers() {
+  public ResponseEntity<List<Customer>> getAllCustomers(UUID after, Integer limit) {
+    if (limit != null) {
+      Slice<Customer> page = customerService.getCustomersAfter(cursor(after), limit);
+      return page(page, page.getContent().stream().map(customerAssembler::toModel).toList(), Customer::getId);
+    }
     return ResponseEntity.ok(Optional.ofNullable(customerService.getAllCustomers())
         .orElse(List.of()) // Provide an empty list if null
         .stream()
@@ -69,10 +89,31 @@ public class AdminController implements AdminApi {
   }
 
   @Override
-  public ResponseEntity<List<Order>> getAllOrders () {
+  public ResponseEntity<List<Order>> getAllOrders(UUID after, Integer limit) {
+    if (limit != null) {
+      Slice<Order> page = orderService.getOrdersAfter(cursor(after), limit);
+      return page(page, orderAssembler.toModelList(page.getContent()), Order::getId);
+    }
     return ResponseEntity.ok(Optional.ofNullable(orderService.getAllOrders())
         .map(orderAssembler::toModelList)
         .orElse(List.of()));
   }
 
+  private static UUID cursor(UUID after) {
+    return after == null ? KeysetPage.FIRST : after;
+  }
+
+  // The next page starts after the last id of this one
+  private static <T> ResponseEntity<List<T>> page(Slice<T> page, List<T> body, Function<T, UUID> id) {
+    HttpHeaders headers = new HttpHeaders();
+    if (page.hasNext()) {
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("after", id.apply(page.getContent().get(page.getNumberOfElements() - 1)))
+          .replaceQueryParam("limit", page.getSize())
+          .toUriString();
+      headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    return ResponseEntity.ok().headers(headers).body(body);
+  }
+
 }
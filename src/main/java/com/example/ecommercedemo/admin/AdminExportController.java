@@ -0,0 +1,61 @@
+package com.example.ecommercedemo.admin;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Streaming exports of whole tables, for reporting and migrations: {@code ?format=ndjson} (default)
+ * or {@code ?format=csv}. Unlike the admin list endpoints, the response is written while the rows
+ * are read, with constant memory however large the table. Restricted to admins in SecurityConfig.
+ * <p>
+ * Not part of the OpenAPI spec: the generated interfaces return a complete body.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/export")
+public class AdminExportController {
+
+  private final AdminExportService exportService;
+
+  public AdminExportController(AdminExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  @GetMapping("/orders")
+  public void exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    export(ExportTable.ORDERS, format, response);
+  }
+
+  @GetMapping("/customers")
+  public void exportCustomers(@RequestParam(defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    export(ExportTable.CUSTOMERS, format, response);
+  }
+
+  @GetMapping("/addresses")
+  public void exportAddresses(@RequestParam(defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    export(ExportTable.ADDRESSES, format, response);
+  }
+
+  @GetMapping("/cards")
+  public void exportCards(@RequestParam(defaultValue = "ndjson") String format,
+      HttpServletResponse response) throws IOException {
+    export(ExportTable.CARDS, format, response);
+  }
+
+  private void export(ExportTable table, String formatName, HttpServletResponse response) throws IOException {
+    ExportFormat format = ExportFormat.of(formatName);
+    response.setContentType(format.contentType());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename(table.fileName(format)).build().toString());
+    exportService.export(table, format, response.getOutputStream());
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.ecommercedemo.admin;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Writes whole tables to a stream as the rows are read, so memory use doesn't depend on the table
+ * size. Rows are plain columns, not the API models: those need associations and links, and are
+ * built per page by the admin list endpoints.
+ * <p>
+ * Postgres only reads through a server side cursor, {@code app.admin.export.fetch-size} rows at a
+ * time, when the statement runs in a transaction; with autocommit the driver reads the whole
+ * result into memory first.
+ */
+@Service
+public class AdminExportService {
+
+  private static final Logger log = LoggerFactory.getLogger(AdminExportService.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JsonFactory jsonFactory;
+
+  public AdminExportService(
+      DataSource dataSource,
+      ObjectMapper objectMapper,
+      @Value("${app.admin.export.fetch-size:500}") int fetchSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  /**
+   * Writes all rows of the table to the stream and returns the number of rows. The stream is
+   * flushed, not closed.
+   */
+  @Transactional(readOnly = true)
+  public long export(ExportTable table, ExportFormat format, OutputStream out) throws IOException {
+    try (RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(jsonFactory, out)) {
+      long rows = jdbcTemplate.query(table.sql(), resultSet -> {
+        long count = 0;
+        try {
+          writer.start(resultSet.getMetaData());
+          while (resultSet.next()) {
+            writer.row(resultSet);
+            count++;
+          }
+        } catch (IOException e) {
+          // Usually the client went away; stop reading instead of reading the rest of the table
+          throw new UncheckedIOException(e);
+        }
+        return count;
+      });
+      log.debug("---> Exported {} rows of {} as {}", rows, table, format);
+      return rows;
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private interface RowWriter extends AutoCloseable {
+
+    void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+    void row(ResultSet resultSet) throws SQLException, IOException;
+
+    // Flushes, the response stream stays open
+    @Override
+    void close() throws IOException;
+  }
+
+  private static Object value(ResultSet resultSet, int column) throws SQLException {
+    Object value = resultSet.getObject(column);
+    return value instanceof Timestamp timestamp ? timestamp.toInstant() : value;
+  }
+
+  private static final class NdjsonRowWriter implements RowWriter {
+
+    private final JsonGenerator generator;
+    private String[] columns;
+
+    NdjsonRowWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+      this.generator = jsonFactory.createGenerator(out)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // One object per line, instead of the default space between root values
+      this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void start(ResultSetMetaData metaData) throws SQLException {
+      columns = new String[metaData.getColumnCount()];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = metaData.getColumnLabel(i + 1);
+      }
+    }
+
+    @Override
+    public void row(ResultSet resultSet) throws SQLException, IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < columns.length; i++) {
+        Object value = value(resultSet, i + 1);
+        generator.writeFieldName(columns[i]);
+        if (value == null) {
+          generator.writeNull();
+        } else if (value instanceof BigDecimal number) {
+          generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+          generator.writeBoolean(bool);
+        } else {
+          generator.writeString(value.toString());
+        }
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+      generator.close();
+    }
+  }
+
+  private static final class CsvRowWriter implements RowWriter {
+
+    private final Writer writer;
+    private int columnCount;
+
+    CsvRowWriter(OutputStream out) {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+      columnCount = metaData.getColumnCount();
+      for (int i = 1; i <= columnCount; i++) {
+        field(i, metaData.getColumnLabel(i));
+      }
+      writer.write("\r\n");
+    }
+
+    @Override
+    public void row(ResultSet resultSet) throws SQLException, IOException {
+      for (int i = 1; i <= columnCount; i++) {
+        Object value = value(resultSet, i);
+        field(i, value == null ? "" : value.toString());
+      }
+      writer.write("\r\n");
+    }
+
+    // RFC 4180: fields with a separator, quote or line break are quoted, quotes doubled
+    private void field(int column, String value) throws IOException {
+      if (column > 1) {
+        writer.write(',');
+      }
+      if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+        writer.write(value);
+        return;
+      }
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.flush();
+    }
+  }
+}
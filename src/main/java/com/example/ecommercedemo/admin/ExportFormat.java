@@ -0,0 +1,36 @@
+package com.example.ecommercedemo.admin;
+
+import java.util.Locale;
+
+/**
+ * Formats of the admin export: newline delimited JSON (one object per row) or CSV with a header.
+ */
+public enum ExportFormat {
+
+  NDJSON("application/x-ndjson", "ndjson"),
+  CSV("text/csv;charset=UTF-8", "csv");
+
+  private final String contentType;
+  private final String extension;
+
+  ExportFormat(String contentType, String extension) {
+    this.contentType = contentType;
+    this.extension = extension;
+  }
+
+  public static ExportFormat of(String name) {
+    try {
+      return valueOf(name.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unsupported export format: " + name + ", use ndjson or csv");
+    }
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+}
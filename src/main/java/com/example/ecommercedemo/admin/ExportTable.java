@@ -0,0 +1,37 @@
+package com.example.ecommercedemo.admin;
+
+/**
+ * Tables that can be exported, with the query that reads them. Rows are read in id order, which is
+ * insertion order (UUIDv7) and an index scan.
+ */
+public enum ExportTable {
+
+  ORDERS("orders",
+      "SELECT id, customer_id, address_id, card_id, payment_id, shipment_id, order_date, total, status"
+          + " FROM ecomm.orders ORDER BY id"),
+  CUSTOMERS("customers",
+      "SELECT id, username, first_name, last_name, email, phone, status FROM ecomm.customer ORDER BY id"),
+  ADDRESSES("addresses",
+      "SELECT id, customer_id, number, residency, street, city, state, country, zipcode"
+          + " FROM ecomm.address ORDER BY id"),
+  // An export file is easily passed around: card numbers are masked and the CVV is left out
+  CARDS("cards",
+      "SELECT id, customer_id, '************' || right(number, 4) AS number, last_name, expires"
+          + " FROM ecomm.card ORDER BY id");
+
+  private final String fileName;
+  private final String sql;
+
+  ExportTable(String fileName, String sql) {
+    this.fileName = fileName;
+    this.sql = sql;
+  }
+
+  public String fileName(ExportFormat format) {
+    return fileName + "." + format.extension();
+  }
+
+  String sql() {
+    return sql;
+  }
+}
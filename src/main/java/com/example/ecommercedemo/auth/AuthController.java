@@ -6,14 +6,13 @@ import com.example.ecommercedemo.model.RefreshToken;
 import com.example.ecommercedemo.model.SignInReq;
 import com.example.ecommercedemo.model.SignedInUser;
 import com.example.ecommercedemo.model.SignUpReq;
-import com.example.ecommercedemo.user.UserEntity;
+import com.example.ecommercedemo.user.UserPrincipal;
 import com.example.ecommercedemo.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,13 +23,13 @@ import static org.springframework.http.ResponseEntity.*;
 public class AuthController implements UserApi {
 
   private final UserService service;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashing;
 
   private final Logger LOG = LoggerFactory.getLogger(getClass());
 
-  public AuthController(UserService service, PasswordEncoder passwordEncoder) {
+  public AuthController(UserService service, PasswordHashingService passwordHashing) {
     this.service = service;
-    this.passwordEncoder = passwordEncoder;
+    this.passwordHashing = passwordHashing;
   }
 
   @Override
@@ -42,15 +41,14 @@ public class AuthController implements UserApi {
 
   @Override
   public ResponseEntity<SignedInUser> signIn(SignInReq signInReq) {
-    LOG.info("SignIn Username: " + signInReq.getUsername());
-    UserEntity userEntity = service.findUserByUsername(signInReq.getUsername());
-    LOG.info("SignIn UserEntity: " + userEntity);
-    if (passwordEncoder.matches(signInReq.getPassword(), userEntity.getPassword())) {
-      LOG.info("Password matches");
-      LOG.info("Role: " + userEntity.getRole());
-      return ok(service.getSignedInUser(userEntity));
+    LOG.debug("SignIn Username: {}", signInReq.getUsername());
+    UserPrincipal user = service.findUserByUsername(signInReq.getUsername());
+    // Hashed on a bounded pool; fails with 503 when too many sign-ins are in flight
+    if (passwordHashing.matches(user.username(), signInReq.getPassword(), user.password())) {
+      LOG.debug("Password matches, role: {}", user.role());
+      return ok(service.getSignedInUser(user));
     }
-    LOG.info("Password does NOT match");
+    LOG.debug("Password does NOT match");
     throw new InsufficientAuthenticationException("Unauthorized.");
   }
 
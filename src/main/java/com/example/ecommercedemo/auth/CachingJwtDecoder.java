@@ -0,0 +1,87 @@
+package com.example.ecommercedemo.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens that passed verification, so a client sending the same token with every request
+ * only pays for the RSA signature check once.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the token and expire at the token's {@code exp} claim,
+ * so an expired token is always passed to the delegate again (and rejected there). Tokens without
+ * an expiry and tokens that fail verification are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+  private final JwtDecoder delegate;
+  private final Cache<String, Jwt> verified;
+
+  public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry) {
+    this(delegate, maximumSize, meterRegistry, Clock.systemUTC());
+  }
+
+  CachingJwtDecoder(JwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry, Clock clock) {
+    this.delegate = delegate;
+    this.verified = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new ExpiresAt(clock))
+            .recordStats()
+            .build(),
+        "auth.jwt.verified");
+  }
+
+  @Override
+  public Jwt decode(String token) throws JwtException {
+    if (token == null) {
+      return delegate.decode(null);
+    }
+    // Exceptions of the delegate are passed on and nothing is cached
+    return verified.get(digest(token), key -> delegate.decode(token));
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record ExpiresAt(Clock clock) implements Expiry<String, Jwt> {
+
+    @Override
+    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+      Instant expiresAt = jwt.getExpiresAt();
+      if (expiresAt == null) {
+        return 0;
+      }
+      return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
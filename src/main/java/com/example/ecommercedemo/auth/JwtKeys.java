@@ -0,0 +1,123 @@
+package com.example.ecommercedemo.auth;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The key that signs access tokens and the keys that are accepted when validating them.
+ * <p>
+ * Tokens carry the keystore alias of their signing key as {@code kid}. To rotate, add the new key to
+ * the keystore, make it {@code key-alias} and move the old alias to {@code previous-key-aliases};
+ * tokens signed with the old key stay valid until they expire ({@link Constants#EXPIRATION_TIME}),
+ * after that the old alias can be removed.
+ */
+public class JwtKeys {
+
+  private final JwtSigningAlgorithm algorithm;
+  private final String keyId;
+  private final PrivateKey signingKey;
+  private final PublicKey publicKey;
+  private final JWKSet validationKeys;
+
+  public JwtKeys(JwtSigningAlgorithm algorithm, String keyId, PrivateKey signingKey, PublicKey publicKey,
+      List<JWK> previousKeys) {
+    if (!algorithm.supports(publicKey)) {
+      throw new IllegalArgumentException(String.format("JWT key '%s' is a %s key, it can't be used for %s",
+          keyId, publicKey.getAlgorithm(), algorithm));
+    }
+    if (publicKey instanceof ECPublicKey ecKey && !Curve.P_256.equals(Curve.forECParameterSpec(ecKey.getParams()))) {
+      throw new IllegalArgumentException(String.format("JWT key '%s' must use curve P-256 for ES256", keyId));
+    }
+    this.algorithm = algorithm;
+    this.keyId = keyId;
+    this.signingKey = signingKey;
+    this.publicKey = publicKey;
+    List<JWK> keys = new ArrayList<>();
+    keys.add(algorithm.toJwk(publicKey, keyId));
+    keys.addAll(previousKeys);
+    this.validationKeys = new JWKSet(keys);
+  }
+
+  public static JwtKeys fromKeyStore(KeyStore keyStore, JwtSigningAlgorithm algorithm, String keyAlias,
+      char[] passphrase, List<String> previousKeyAliases) {
+    try {
+      Key key = keyStore.getKey(keyAlias, passphrase);
+      Certificate certificate = keyStore.getCertificate(keyAlias);
+      if (!(key instanceof PrivateKey privateKey) || certificate == null) {
+        throw new IllegalArgumentException("Private key or certificate not found in keystore for alias: " + keyAlias);
+      }
+      // Only the certificates (public keys) of previous keys are needed
+      List<JWK> previousKeys = new ArrayList<>();
+      for (String alias : previousKeyAliases) {
+        Certificate previous = keyStore.getCertificate(alias);
+        if (previous == null) {
+          throw new IllegalArgumentException("Certificate not found in keystore for alias: " + alias);
+        }
+        PublicKey previousKey = previous.getPublicKey();
+        previousKeys.add(JwtSigningAlgorithm.forKey(previousKey).toJwk(previousKey, alias));
+      }
+      return new JwtKeys(algorithm, keyAlias, privateKey, certificate.getPublicKey(), previousKeys);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Unable to load JWT keys from keystore", e);
+    } finally {
+      Arrays.fill(passphrase, '\0');
+    }
+  }
+
+  public JwtSigningAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public String getKeyId() {
+    return keyId;
+  }
+
+  // Thread-safe, a new Signature is obtained for every token
+  public Algorithm signer() {
+    return algorithm.signer(publicKey, signingKey);
+  }
+
+  public JWKSet getValidationKeys() {
+    return validationKeys;
+  }
+
+  /**
+   * Decoder that accepts tokens signed by any of the validation keys. The key is selected by
+   * {@code kid}; tokens without one (issued before key ids were added) are tried against all keys
+   * of their algorithm.
+   */
+  public JwtDecoder decoder() {
+    Set<JWSAlgorithm> algorithms = new LinkedHashSet<>();
+    for (JWK key : validationKeys.getKeys()) {
+      algorithms.add(JWSAlgorithm.parse(key.getAlgorithm().getName()));
+    }
+    DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+    jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, new ImmutableJWKSet<>(validationKeys)));
+    // Claims (exp, nbf) are validated by the Spring decoder, like NimbusJwtDecoder.withPublicKey(...) does
+    jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+    });
+    return new NimbusJwtDecoder(jwtProcessor);
+  }
+}
@@ -1,29 +1,38 @@
 package com.example.ecommercedemo.auth;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
-import org.springframework.context.annotation.Lazy;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
 
 import static com.example.ecommercedemo.auth.Constants.EXPIRATION_TIME;
 import static com.example.ecommercedemo.auth.Constants.ROLE_CLAIM;
-import static java.util.stream.Collectors.toList;
 
 @Component
 public class JwtManager {
 
-  private final RSAPrivateKey privateKey;
-  private final RSAPublicKey publicKey;
+  static final String ISSUER = "Modern API Development with Spring and Spring Boot";
 
-  public JwtManager(@Lazy RSAPrivateKey privateKey, @Lazy RSAPublicKey publicKey) {
-    this.privateKey = privateKey;
-    this.publicKey = publicKey;
+  private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+  // The parts that are the same for every token, encoded once
+  private static final String ISSUER_FRAGMENT = ",\"iss\":" + quote(ISSUER);
+  private static final String ROLES_FRAGMENT = ",\"" + ROLE_CLAIM + "\":[";
+
+  private final byte[] header;
+  // Thread-safe, shared by all requests
+  private final Algorithm algorithm;
+
+  public JwtManager(JwtKeys keys) {
+    this.header = BASE64_URL.encode(
+        ("{\"alg\":\"" + keys.getAlgorithm() + "\",\"typ\":\"JWT\",\"kid\":" + quote(keys.getKeyId()) + "}")
+            .getBytes(StandardCharsets.UTF_8));
+    this.algorithm = keys.signer();
   }
 
 // The JWT Manager does 2 things:
@@ -33,22 +42,49 @@ public class JwtManager {
 //    and constructs the token's payload (the claims).
 //
 // 2. Signing (Ensuring Security):
-//    It uses the asymmetric algorithm RSA256 and the injected private key
+//    It uses the configured asymmetric algorithm (RS256 or ES256) and the private key
 //    to generate a digital signature for the token. This signature proves
 //    the token was issued by your server and ensures its contents haven't been tampered with.
+//
+// The payload is written directly instead of via JWT.create(), which serializes the constant
+// header and issuer again for every token; the claims are the same.
   public String create(UserDetails principal) {
     final long now = System.currentTimeMillis();
-    return JWT.create()
-        .withIssuer("Modern API Development with Spring and Spring Boot")
-        .withSubject(principal.getUsername())
-        .withClaim(
-            ROLE_CLAIM,
-            principal.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(toList()))
-        .withIssuedAt(new Date(now))
-        .withExpiresAt(new Date(now + EXPIRATION_TIME))
-        // .sign(Algorithm.HMAC512(SECRET_KEY.getBytes(StandardCharsets.UTF_8)));
-        .sign(Algorithm.RSA256(publicKey, privateKey));
+    byte[] payload = BASE64_URL.encode(payload(principal, now).getBytes(StandardCharsets.UTF_8));
+    byte[] signature = algorithm.sign(header, payload);
+
+    byte[] encodedSignature = BASE64_URL.encode(signature);
+    byte[] token = new byte[header.length + payload.length + encodedSignature.length + 2];
+    System.arraycopy(header, 0, token, 0, header.length);
+    int offset = header.length;
+    token[offset++] = '.';
+    System.arraycopy(payload, 0, token, offset, payload.length);
+    offset += payload.length;
+    token[offset++] = '.';
+    System.arraycopy(encodedSignature, 0, token, offset, encodedSignature.length);
+    return new String(token, StandardCharsets.US_ASCII);
+  }
+
+  private static String payload(UserDetails principal, long now) {
+    StringBuilder json = new StringBuilder(256)
+        .append("{\"sub\":").append(quote(principal.getUsername()))
+        .append(ISSUER_FRAGMENT)
+        .append(ROLES_FRAGMENT);
+    Iterator<? extends GrantedAuthority> authorities = principal.getAuthorities().iterator();
+    while (authorities.hasNext()) {
+      json.append(quote(authorities.next().getAuthority()));
+      if (authorities.hasNext()) {
+        json.append(',');
+      }
+    }
+    // Registered date claims are in seconds
+    return json.append("],\"iat\":").append(now / 1000)
+        .append(",\"exp\":").append((now + EXPIRATION_TIME) / 1000)
+        .append('}')
+        .toString();
+  }
+
+  private static String quote(String value) {
+    return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"';
   }
 }
@@ -0,0 +1,81 @@
+package com.example.ecommercedemo.auth;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
+/**
+ * Algorithms for signing access tokens, configured with {@code app.security.jwt.signing-algorithm}.
+ * ES256 signs several times faster than RS256 with a 4096 bit key and produces much shorter tokens;
+ * RS256 verifies faster. Validation accepts every algorithm, so the mode can be switched during a
+ * key rotation.
+ */
+public enum JwtSigningAlgorithm {
+
+  RS256("RSA") {
+    @Override
+    Algorithm signer(PublicKey publicKey, PrivateKey privateKey) {
+      return Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+    }
+
+    @Override
+    JWK toJwk(PublicKey publicKey, String keyId) {
+      return new RSAKey.Builder((RSAPublicKey) publicKey)
+          .keyID(keyId)
+          .keyUse(KeyUse.SIGNATURE)
+          .algorithm(JWSAlgorithm.RS256)
+          .build();
+    }
+  },
+
+  ES256("EC") {
+    @Override
+    Algorithm signer(PublicKey publicKey, PrivateKey privateKey) {
+      return Algorithm.ECDSA256((ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+    }
+
+    @Override
+    JWK toJwk(PublicKey publicKey, String keyId) {
+      return new ECKey.Builder(Curve.P_256, (ECPublicKey) publicKey)
+          .keyID(keyId)
+          .keyUse(KeyUse.SIGNATURE)
+          .algorithm(JWSAlgorithm.ES256)
+          .build();
+    }
+  };
+
+  private final String keyAlgorithm;
+
+  JwtSigningAlgorithm(String keyAlgorithm) {
+    this.keyAlgorithm = keyAlgorithm;
+  }
+
+  abstract Algorithm signer(PublicKey publicKey, PrivateKey privateKey);
+
+  abstract JWK toJwk(PublicKey publicKey, String keyId);
+
+  // The algorithm that uses keys like the given one (validation keys can be of any supported type)
+  static JwtSigningAlgorithm forKey(PublicKey publicKey) {
+    for (JwtSigningAlgorithm algorithm : values()) {
+      if (algorithm.keyAlgorithm.equals(publicKey.getAlgorithm())) {
+        return algorithm;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported JWT key type: " + publicKey.getAlgorithm());
+  }
+
+  boolean supports(PublicKey publicKey) {
+    return keyAlgorithm.equals(publicKey.getAlgorithm());
+  }
+}
@@ -0,0 +1,235 @@
+package com.example.ecommercedemo.auth;
+
+import com.example.ecommercedemo.exception.ServiceOverloadedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs password hashing (BCrypt takes tens of milliseconds of CPU per call) on a small dedicated
+ * pool instead of on the servlet threads, so a burst of sign-ins can't use up all CPU and starve
+ * the other endpoints.
+ * <p>
+ * The pool has a bounded queue. When it is full, or a username already has the maximum number of
+ * hashes in flight, the call fails fast with a {@link ServiceOverloadedException} (503 with
+ * Retry-After) instead of queueing up more work than the pool can finish in time.
+ * <p>
+ * The timeout only limits how long the caller waits. BCrypt can't be interrupted, so a hash that
+ * has started when its caller gives up still runs to the end: it keeps its pool thread and counts
+ * against the user's limit until it finishes. A hash that is still queued is dropped.
+ * <p>
+ * Successful verifications are remembered for a short time, keyed by a SHA-256 digest of the stored
+ * hash and the raw password, so clients that sign in repeatedly don't pay for BCrypt each time.
+ * Changing the password changes the stored hash, which makes the old entries unreachable. Failed
+ * verifications are never cached, guessing passwords stays as expensive as before.
+ */
+@Component
+public class PasswordHashingService implements DisposableBean {
+
+  private final static Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+  private static final String METRIC_PREFIX = "auth.password.hashing";
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final int perUserLimit;
+  private final Duration timeout;
+  private final Duration retryAfter;
+
+  // Hashes in flight per username; entries are removed when the count drops to zero
+  private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+  private final Cache<String, Boolean> verified;
+
+  private final Timer matchesTimer;
+  private final Timer encodeTimer;
+  private final Counter rejectedSaturated;
+  private final Counter rejectedUserLimit;
+  private final Counter rejectedTimeout;
+
+  public PasswordHashingService(
+      PasswordEncoder passwordEncoder,
+      @Value("${app.security.password-hashing.threads:0}") int threads,
+      @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${app.security.password-hashing.per-user-limit:2}") int perUserLimit,
+      @Value("${app.security.password-hashing.timeout:PT5S}") Duration timeout,
+      @Value("${app.security.password-hashing.retry-after:PT2S}") Duration retryAfter,
+      @Value("${app.security.password-hashing.verification-cache.maximum-size:10000}") long cacheSize,
+      @Value("${app.security.password-hashing.verification-cache.time-to-live:PT5M}") Duration cacheTtl,
+      MeterRegistry meterRegistry) {
+    this.passwordEncoder = passwordEncoder;
+    this.perUserLimit = perUserLimit;
+    this.timeout = timeout;
+    this.retryAfter = retryAfter;
+
+    // Leave at least one core for the servlet threads
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+        new ThreadPoolExecutor.AbortPolicy());
+
+    this.verified = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(cacheTtl).recordStats().build(),
+        METRIC_PREFIX + ".verified");
+
+    Gauge.builder(METRIC_PREFIX + ".queue.size", executor, e -> e.getQueue().size())
+        .description("Password hashes waiting for a thread")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Password hashes being computed")
+        .register(meterRegistry);
+    this.matchesTimer = hashTimer(meterRegistry, "matches");
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.rejectedSaturated = rejectedCounter(meterRegistry, "saturated");
+    this.rejectedUserLimit = rejectedCounter(meterRegistry, "user-limit");
+    this.rejectedTimeout = rejectedCounter(meterRegistry, "timeout");
+  }
+
+  public boolean matches(String username, CharSequence rawPassword, String encodedPassword) {
+    String key = verificationKey(rawPassword, encodedPassword);
+    if (verified.getIfPresent(key) != null) {
+      return true;
+    }
+    boolean matches = run(username, matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    if (matches) {
+      verified.put(key, Boolean.TRUE);
+    }
+    return matches;
+  }
+
+  public String encode(String username, CharSequence rawPassword) {
+    return run(username, encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  private <T> T run(String username, Timer timer, Callable<T> hash) {
+    if (!acquire(username)) {
+      rejectedUserLimit.increment();
+      log.debug("Too many concurrent password hashes for user {}", username);
+      throw new ServiceOverloadedException(retryAfter);
+    }
+    // The permit is released by whoever ends up owning the task: the pool thread once the hash is
+    // done, or the caller when it gives up before the hash has started
+    AtomicBoolean claimed = new AtomicBoolean();
+    FutureTask<T> task = new FutureTask<>(() -> {
+      if (!claimed.compareAndSet(false, true)) {
+        return null; // abandoned while the thread picked it up
+      }
+      try {
+        return timer.recordCallable(hash);
+      } finally {
+        release(username);
+      }
+    });
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException ex) {
+      release(username);
+      rejectedSaturated.increment();
+      log.debug("Password hashing queue is full");
+      throw new ServiceOverloadedException(retryAfter);
+    }
+    return await(username, task, claimed);
+  }
+
+  private <T> T await(String username, FutureTask<T> task, AtomicBoolean claimed) {
+    try {
+      return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      abandon(username, task, claimed);
+      rejectedTimeout.increment();
+      throw new ServiceOverloadedException(retryAfter);
+    } catch (InterruptedException ex) {
+      abandon(username, task, claimed);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing a password", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Password hashing failed", ex.getCause());
+    }
+  }
+
+  // A queued hash is dropped and frees its permit and queue slot; a running one is left to finish
+  private void abandon(String username, FutureTask<?> task, AtomicBoolean claimed) {
+    if (claimed.compareAndSet(false, true)) {
+      task.cancel(false);
+      executor.remove(task);
+      release(username);
+    }
+  }
+
+  private boolean acquire(String username) {
+    boolean[] acquired = {false};
+    inFlight.compute(username, (name, count) -> {
+      int current = count == null ? 0 : count;
+      if (current >= perUserLimit) {
+        return count;
+      }
+      acquired[0] = true;
+      return current + 1;
+    });
+    return acquired[0];
+  }
+
+  private void release(String username) {
+    inFlight.computeIfPresent(username, (name, count) -> count <= 1 ? null : count - 1);
+  }
+
+  private static String verificationKey(CharSequence rawPassword, String encodedPassword) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      digest.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+    return Timer.builder(METRIC_PREFIX)
+        .description("Time spent computing a password hash")
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+
+  private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder(METRIC_PREFIX + ".rejected")
+        .description("Password hashes rejected because of overload")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
@@ -1,6 +1,8 @@
 package com.example.ecommercedemo.auth;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.jwk.JWK;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,7 +23,6 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -33,10 +34,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.*;
-import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.util.Arrays;
 import java.util.List;
 
@@ -69,6 +67,13 @@ public class SecurityConfig {
   @Value("${app.security.jwt.private-key-passphrase}")
   private String privateKeyPassphrase;
 
+  @Value("${app.security.jwt.signing-algorithm:RS256}")
+  private JwtSigningAlgorithm signingAlgorithm;
+
+  // Keys that signed tokens before a key rotation, still accepted until those tokens expire
+  @Value("${app.security.jwt.previous-key-aliases:}")
+  private List<String> previousKeyAliases;
+
   public SecurityConfig(
 //      UserDetailsService userService,
       @Lazy PasswordEncoder bCryptPasswordEncoder,
@@ -110,12 +115,15 @@ public class SecurityConfig {
       http
       .httpBasic(basic -> basic.disable())
       .formLogin(form -> form.disable())
-      .csrf(csrf -> csrf.ignoringRequestMatchers(API_URL_PREFIX))
+      .csrf(csrf -> csrf.ignoringRequestMatchers(API_URL_PREFIX, "/actuator/**"))
       .cors(cors -> {})
 
       // Authorization (only defining rules for protected APIs now)
       .authorizeHttpRequests(auth -> auth
               .requestMatchers("/api/v1/addresses/**").hasAuthority(RoleEnum.Const.ADMIN)
+              .requestMatchers("/api/v1/admin/**").hasAuthority(RoleEnum.Const.ADMIN)
+              // Changing log levels at runtime
+              .requestMatchers("/actuator/loggers/**").hasAuthority(RoleEnum.Const.ADMIN)
               .anyRequest().authenticated()
       )
 
@@ -189,57 +197,22 @@ public class SecurityConfig {
     throw new IllegalArgumentException("Unable to load keystore");
   }
 
-  // The RSA private key is returned which is the key used for signing
+  // The key used for signing and the keys accepted for validating tokens (current and previous)
   @Bean
-  public RSAPrivateKey jwtSigningKey(KeyStore keyStore) {
-    try {
-      Key key = keyStore.getKey(keyAlias, privateKeyPassphrase.toCharArray());
-      if (key instanceof RSAPrivateKey) {
-        return (RSAPrivateKey) key;
-      }
-    } catch (UnrecoverableKeyException | NoSuchAlgorithmException | KeyStoreException e) {
-      LOG.error("Unable to load private key from keystore: {}", keyStoreResource.getDescription(), e);
-    }
-    throw new IllegalArgumentException("Unable to load private key");
-  }
-
-  // The RSA public key is returned which is the key used for validating a signed token
-  @Bean
-  public RSAPublicKey jwtValidationKey(KeyStore keyStore) {
-    try {
-      // --- DEBUGGING BLOCK START ---
-      LOG.info("--> Looking for alias: '{}'", this.keyAlias);
-      java.util.Enumeration<String> aliases = keyStore.aliases();
-      while (aliases.hasMoreElements()) {
-        LOG.info("--> Found alias in keystore: '{}'", aliases.nextElement());
-      }
-      // --- DEBUGGING BLOCK END ---
-
-      Certificate certificate = keyStore.getCertificate(this.keyAlias);
-
-      if (certificate == null) {
-        // The key alias lookup failed
-        LOG.error("Certificate not found for alias: {}", this.keyAlias);
-        throw new IllegalArgumentException("Certificate not found in keystore for alias: " + this.keyAlias);
-      }
-
-      PublicKey publicKey = certificate.getPublicKey();
-
-      if (publicKey instanceof RSAPublicKey) {
-        return (RSAPublicKey) publicKey;
-      }
-
-      throw new IllegalArgumentException("Unable to load RSA public key");
-
-    } catch (KeyStoreException e) {
-      LOG.error("Unable to load private key from keystore: {}", keyStoreResource.getDescription(), e);
-      // Re-throw a RuntimeException to terminate bean creation
-      throw new RuntimeException("Failed to access keystore for JWT validation.", e);
-    }
+  public JwtKeys jwtKeys(KeyStore keyStore) {
+    JwtKeys keys = JwtKeys.fromKeyStore(keyStore, signingAlgorithm, keyAlias,
+        privateKeyPassphrase.toCharArray(), previousKeyAliases);
+    LOG.info("Signing tokens with {} key '{}', accepting keys {}", signingAlgorithm, keyAlias,
+        keys.getValidationKeys().getKeys().stream().map(JWK::getKeyID).toList());
+    return keys;
   }
 
+  // Verified tokens are cached until they expire, so repeated requests skip the signature check
   @Bean
-  public JwtDecoder jwtDecoder(RSAPublicKey rsaPublicKey) {
-    return NimbusJwtDecoder.withPublicKey(rsaPublicKey).build();
+  public JwtDecoder jwtDecoder(
+      JwtKeys jwtKeys,
+      @Value("${app.security.jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+      MeterRegistry meterRegistry) {
+    return new CachingJwtDecoder(jwtKeys.decoder(), verifiedCacheSize, meterRegistry);
   }
 }
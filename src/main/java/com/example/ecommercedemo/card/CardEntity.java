@@ -2,6 +2,7 @@ package com.example.ecommercedemo.card;
 
 import com.example.ecommercedemo.customer.CustomerEntity;
 import com.example.ecommercedemo.order.OrderEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
@@ -18,7 +19,7 @@ import java.util.UUID;
 @Accessors(chain = true) // Enable fluent api, makes the setters return 'this'
 public class CardEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -3,7 +3,6 @@ package com.example.ecommercedemo.card;
 import com.example.ecommercedemo.model.Card;
 //import org.slf4j.Logger;
 //import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -25,9 +24,6 @@ public class CardMapper {
 
     UUID customerUuid = Objects.nonNull(entity.getCustomer()) ? entity.getCustomer().getId() : null;
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-//    logger.info("Cardmodel after copyProperties " + resource);
     resource.id(entity.getId()).cardNumber(entity.getNumber())
         .cvv(entity.getCvv()).expires(entity.getExpires()).customerId(customerUuid);
 //    logger.info("Cardmodel after explicit property settings " + resource);
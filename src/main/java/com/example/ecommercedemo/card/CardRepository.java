@@ -1,9 +1,17 @@
 package com.example.ecommercedemo.card;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CardRepository extends JpaRepository<CardEntity, UUID> {
   boolean existsByCustomerIdAndNumber(UUID customerId, String cardNumber);
+
+  // Keyset page, see KeysetPage
+  @Query("select c from CardEntity c where c.id > :after order by c.id")
+  List<CardEntity> findPageAfter(@Param("after") UUID after, Pageable pageable);
 }
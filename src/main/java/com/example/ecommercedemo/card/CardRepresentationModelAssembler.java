@@ -1,18 +1,22 @@
 package com.example.ecommercedemo.card;
 
 import com.example.ecommercedemo.model.Card;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class CardRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Card, Card> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(CardController.class).getCardById(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -29,7 +33,7 @@ public class CardRepresentationModelAssembler extends
   public Card toModel(Card resource) {
 
     // Add HATEOAS links
-    resource.add(linkTo(methodOn(CardController.class).getCardById(resource.getId())).withSelfRel());
+    resource.add(SELF.selfLink(resource.getId()));
 
     return resource;
   }
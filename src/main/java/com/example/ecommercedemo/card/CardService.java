@@ -4,6 +4,7 @@ import com.example.ecommercedemo.model.CardReq;
 import com.example.ecommercedemo.model.Card;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,7 @@ import java.util.UUID;
 public interface CardService {
   Card registerCard(@NotNull(message = "Customer UUID cannot be null.") UUID id, @Valid CardReq cardReq);
   List<Card> getAllCards();
+  Slice<Card> getCardsAfter(@NotNull(message = "Cursor UUID cannot be null.") UUID after, int limit);
   Optional<Card> getCardById(@NotNull(message = "Card UUID cannot be null.") UUID uuid);
   Optional<List<Card>> getCardsByCustomerId(@NotNull(message = "Customer UUID cannot be null.") UUID id);
   boolean deleteCardById(@NotNull(message = "Card UUID cannot be null.") UUID uuid);
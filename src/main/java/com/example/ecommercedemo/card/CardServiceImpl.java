@@ -7,6 +7,8 @@ import com.example.ecommercedemo.exception.ErrorCode;
 import com.example.ecommercedemo.model.Card;
 import com.example.ecommercedemo.customer.CustomerRepository;
 import com.example.ecommercedemo.model.CardReq;
+import com.example.ecommercedemo.persistence.KeysetPage;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -76,6 +78,13 @@ public class CardServiceImpl implements CardService {
     return cardMapper.entityToModelList(cardRepository.findAll());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<Card> getCardsAfter(UUID after, int limit) {
+    return KeysetPage.of(cardRepository.findPageAfter(after, KeysetPage.request(limit)), limit)
+        .map(cardMapper::entityToModel);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Optional<List<Card>> getCardsByCustomerId(UUID id) {
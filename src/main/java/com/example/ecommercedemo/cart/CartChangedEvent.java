@@ -0,0 +1,12 @@
+package com.example.ecommercedemo.cart;
+
+import java.util.UUID;
+
+/**
+ * Published whenever the items of a customer's cart change, the cart is created or deleted, or it
+ * is emptied by a checkout.
+ *
+ * @param customerId the customer whose cart changed
+ */
+public record CartChangedEvent(UUID customerId) {
+}
@@ -37,7 +37,7 @@ public class CartController implements CartApi {
 
   @Override
   public ResponseEntity<Cart> addItemToCart(UUID customerId, Item item) {
-    log.info("Add Item to Cart Request for customer ID: {}", customerId);
+    log.debug("Add Item to Cart Request for customer ID: {}", customerId);
 
     Cart cart = cartService.addItemToCart(customerId, item);
 
@@ -2,6 +2,7 @@ package com.example.ecommercedemo.cart;
 
 import com.example.ecommercedemo.customer.CustomerEntity;
 import com.example.ecommercedemo.item.ItemEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
@@ -20,7 +21,7 @@ import java.util.UUID;
 public class CartEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -29,6 +30,12 @@ public class CartEntity {
   @JoinColumn(name = "CUSTOMER_ID", referencedColumnName = "ID")
   private CustomerEntity customer;
 
+  // Incremented by every change of the cart's items (see CartServiceImpl) and by checkout, so
+  // concurrent writes of one cart conflict even when they touch different items
+  @Version
+  @Column(name = "VERSION")
+  private Long version;
+
   @ManyToMany
   @JoinTable(
       name = "CART_ITEM",
@@ -1,6 +1,7 @@
 package com.example.ecommercedemo.cart;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -12,10 +13,20 @@ public interface CartRepository extends JpaRepository<CartEntity, UUID> {
 //  Optional<CartEntity> findByCustomerId(@Param("customerId") UUID customerId);
   Optional<CartEntity> findByCustomerId(UUID customerId);
 
+  @Query("select new com.example.ecommercedemo.cart.CartVersion(c.id, c.version) from CartEntity c " +
+      "where c.customer.id = :customerId")
+  Optional<CartVersion> findVersionByCustomerId(@Param("customerId") UUID customerId);
+
+  // Items are linked and unlinked with native statements, so a change of the items is recorded as
+  // a new version of the cart. Returns 0 when another transaction changed the cart since it was read.
+  @Modifying(flushAutomatically = true)
+  @Query("update CartEntity c set c.version = c.version + 1 where c.id = :cartId and c.version = :version")
+  int incrementVersion(@Param("cartId") UUID cartId, @Param("version") long version);
+
+  // Items reference their product lazily; only the product id (the item's foreign key) is mapped
   @Query("SELECT DISTINCT c FROM CartEntity c " +
       "LEFT JOIN FETCH c.items i " +  // Join cart with items (left join in case there are no items)
-      "LEFT JOIN FETCH i.product p " + // Left join i
       "WHERE c.customer.id = :customerId")
-  Optional<CartEntity> findCartAndItemsAndProductsByCustomerId(@Param("customerId") UUID customerId);
+  Optional<CartEntity> findCartAndItemsByCustomerId(@Param("customerId") UUID customerId);
 }
 
@@ -2,6 +2,7 @@ package com.example.ecommercedemo.cart;
 
 import com.example.ecommercedemo.customer.CustomerController;
 import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
@@ -9,13 +10,20 @@ import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class CartRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Cart, Cart> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCart(arg(0)));
+  private static final LinkTemplate CUSTOMER =
+      LinkTemplate.of(methodOn(CustomerController.class).getCustomerById(arg(0)));
+  private static final LinkTemplate CART_ITEMS =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCartItems(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -39,16 +47,13 @@ public class CartRepresentationModelAssembler extends
     if (Objects.nonNull(uid)) {
       // 1. Self Link
       // Allows the client to retrieve this specific cart using the customer ID
-      resource.add(linkTo(methodOn(CartController.class)
-          .getCustomerCart(uid)).withSelfRel());
+      resource.add(SELF.selfLink(uid));
 
       // 2. Customer link
-      resource.add(linkTo(methodOn(CustomerController.class)
-          .getCustomerById(uid)).withRel("customer"));
+      resource.add(CUSTOMER.link("customer", uid));
 
       // 3. Cart Items Link
-      resource.add(linkTo(methodOn(CartController.class)
-          .getCustomerCartItems(uid)).withRel("cart-items"));
+      resource.add(CART_ITEMS.link("cart-items", uid));
 
     }
     return resource;
@@ -8,9 +8,13 @@ import com.example.ecommercedemo.model.Cart;
 import com.example.ecommercedemo.customer.CustomerRepository;
 import com.example.ecommercedemo.item.ItemRepository;
 import com.example.ecommercedemo.model.Item;
+import com.example.ecommercedemo.persistence.OptimisticLockRetry;
+import com.example.ecommercedemo.product.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,27 +30,32 @@ public class CartServiceImpl implements CartService {
   private final CartRepository cartRepository;
   private final ItemRepository itemRepository;
   private final CustomerRepository customerRepository;
+  private final ProductRepository productRepository;
   private final CartMapper cartMapper;
   private final ItemMapper itemMapper;
+  private final ApplicationEventPublisher publisher;
+  private final OptimisticLockRetry retry;
   private final CartServiceImpl self;
 
   private final static Logger log = LoggerFactory.getLogger(CartServiceImpl.class);
 
-  public CartServiceImpl(CartRepository cartRepository, ItemRepository itemRepository, CustomerRepository customerRepository, CartMapper cartMapper, ItemMapper itemMapper, @Lazy CartServiceImpl self ) {
+  public CartServiceImpl(CartRepository cartRepository, ItemRepository itemRepository, CustomerRepository customerRepository, ProductRepository productRepository, CartMapper cartMapper, ItemMapper itemMapper, ApplicationEventPublisher publisher, OptimisticLockRetry retry, @Lazy CartServiceImpl self ) {
     this.cartRepository = cartRepository;
     this.itemRepository = itemRepository;
     this.customerRepository = customerRepository;
+    this.productRepository = productRepository;
     this.cartMapper = cartMapper;
     this.itemMapper = itemMapper;
+    this.publisher = publisher;
+    this.retry = retry;
     // Using the self-injection pattern (injecting a service into itself) to invoke a method in a separate transaction context, used for createCartForCustomer in the context of getCartEntityByCustomerId
     this.self = self;
   }
 
   @Override
-  @Transactional
   public Cart addItemToCart(UUID customerId, Item item) {
     // --- VALIDATION ---
-    // customerId is validated by getCartEntityByCustomerId
+    // customerId is validated by getCartVersionByCustomerId
     if (item == null) {
       throw new IllegalArgumentException("Item cannot be null.");
     }
@@ -55,26 +64,23 @@ public class CartServiceImpl implements CartService {
     }
     // --- END VALIDATION ---
 
-    // Retrieve existing cart
-    CartEntity originalCartEntity = getCartEntityByCustomerId(customerId);
+    return retry.execute("cart.add-item", () -> {
+      CartVersion cart = getCartVersionByCustomerId(customerId);
 
-    // Check that item (productId) does  not already exist as an item in cart
-    long count = originalCartEntity.getItems().stream()
-        .filter(i -> i.getProduct().getId().equals(item.getProductId())).count();
-    if (count > 0) {
-      throw new ItemAlreadyExistsException(
-          String.format("Item with Id (%s) already exists.", item.getProductId()));
-    }
+      // Check that item (productId) does not already exist as an item in cart
+      if (itemRepository.existsByCartIdAndProductId(cart.id(), item.getProductId())) {
+        throw new ItemAlreadyExistsException(
+            String.format("Item with Id (%s) already exists.", item.getProductId()));
+      }
 
-    ItemEntity itemEntity = itemMapper.modelToEntity(item);
-    itemRepository.save(itemEntity);
-    originalCartEntity.getItems().add(itemEntity);
-    CartEntity savedCartEntity = cartRepository.save(originalCartEntity);
-    return cartMapper.entityToModel(savedCartEntity);
+      addNewItems(cart.id(), List.of(item));
+      incrementCartVersion(cart);
+      publisher.publishEvent(new CartChangedEvent(customerId));
+      return getCartModel(customerId, cart.id());
+    });
   }
 
   @Override
-  @Transactional
   public Cart replaceItemInCart(UUID customerId, Item itemToUpdate) {
 
     // Validate input arguments
@@ -85,48 +91,21 @@ public class CartServiceImpl implements CartService {
       throw new IllegalArgumentException("ProductId cannot be null.");
     }
 
-    // Get the existing cart entity
-    // customerId validation is handled by getCartEntityByCustomerId
-    CartEntity originalCartEntity = getCartEntityByCustomerId(customerId);
-
-    // Initialize items list, and check there are items
-    List<ItemEntity> originalItems = originalCartEntity.getItems();
-
-    if (originalItems == null) {
-      originalItems = new ArrayList<>();
-      originalCartEntity.setItems(originalItems); // Set it back to the entity
-    }
-
-    // Initialize product and itemMatched
-    UUID productId = itemToUpdate.getProductId();
-
-    boolean itemMatched = false;
-
-    // All validations have been done above so no need for validation here
-    // Iterate and update existing item
-    for (ItemEntity i : originalItems) {
-      // Safely compare the product IDs (UUID objects)
-      if (Objects.nonNull(i.getProduct()) && productId.equals(i.getProduct().getId())) {
-
-        // Update quantity and price
-        i.setQuantity(itemToUpdate.getQuantity());
-        i.setPrice(new BigDecimal(itemToUpdate.getUnitPrice()));
-
-        itemMatched = true;
-        break; // Exit loop once found and updated
-      }
-    }
-
-    // Add new item if no existing item was matched
-    if (!itemMatched) {
-      ItemEntity newItemEntity = itemMapper.modelToEntity(itemToUpdate);
-      newItemEntity = itemRepository.save(newItemEntity);
-      originalItems.add(newItemEntity);
-    }
-
-    // Save and return the updated list
-    CartEntity savedCartEntity = cartRepository.save(originalCartEntity);
-    return cartMapper.entityToModel(savedCartEntity);
+    return retry.execute("cart.replace-item", () -> {
+      // customerId validation is handled by getCartVersionByCustomerId
+      CartVersion cart = getCartVersionByCustomerId(customerId);
+
+      // Update the existing item in place (flushed by dirty checking), or add it if it's new
+      itemRepository.findByCartIdAndProductId(cart.id(), itemToUpdate.getProductId())
+          .ifPresentOrElse(
+              i -> i.setQuantity(itemToUpdate.getQuantity())
+                  .setPrice(new BigDecimal(itemToUpdate.getUnitPrice())),
+              () -> addNewItems(cart.id(), List.of(itemToUpdate)));
+      incrementCartVersion(cart);
+      publisher.publishEvent(new CartChangedEvent(customerId));
+
+      return getCartModel(customerId, cart.id());
+    });
   }
 
   @Transactional(readOnly = true)
@@ -138,7 +117,7 @@ public class CartServiceImpl implements CartService {
       throw new IllegalArgumentException("CustomerId cannot be null.");
     }
     // --- END VALIDATION ---
-    log.info("---> getCartByCustomerId: Getting cart by customer id {}", customerId);
+    log.debug("---> getCartByCustomerId: Getting cart by customer id {}", customerId);
 
     // 1. Get the entity directly from the repository, which returns Optional<CartEntity>
     return cartRepository.findByCustomerId(customerId)
@@ -153,29 +132,78 @@ public class CartServiceImpl implements CartService {
       throw new IllegalArgumentException("CustomerId cannot be null.");
     }
 
-    log.info("---> getCartEntityByCustomerId: Getting cart entity by customer id {}", customerId);
+    log.debug("---> getCartEntityByCustomerId: Getting cart entity by customer id {}", customerId);
 
     // Validate if customer exists
     CustomerEntity customerEntity = customerRepository.findById(customerId)
         .orElseThrow(() -> new CustomerNotFoundException(String.format(" - %s", customerId)));
     // --- END VALIDATION ---
 
-    log.info("---> getCartEntityByCustomerId: Fetching cart for customerId: {}", customerId);
+    log.debug("---> getCartEntityByCustomerId: Fetching cart for customerId: {}", customerId);
 
     // Fetch existing cart or create new cart if not exists
-    CartEntity entity = cartRepository.findCartAndItemsAndProductsByCustomerId(customerId)
+    CartEntity entity = cartRepository.findCartAndItemsByCustomerId(customerId)
         .orElseGet(() -> {
           // Call the new transactional method via the self proxy
           return self.createCartForCustomer(customerEntity);
         });
-    log.info("---> getCartEntityByCustomerId: Cart found with id: {}", entity);
+    log.debug("---> getCartEntityByCustomerId: Cart found with id: {}", entity.getId());
     return entity;
   }
 
+  // Helper method: the id and version of the customer's cart, without loading the cart and its items
+  private CartVersion getCartVersionByCustomerId(UUID customerId) {
+    if (customerId == null) {
+      throw new IllegalArgumentException("CustomerId cannot be null.");
+    }
+
+    return cartRepository.findVersionByCustomerId(customerId)
+        .orElseGet(() -> {
+          // A cart references its customer, so only check the customer when there is no cart yet
+          CustomerEntity customerEntity = customerRepository.findById(customerId)
+              .orElseThrow(() -> new CustomerNotFoundException(String.format(" - %s", customerId)));
+          // A new cart is persisted with version 0
+          return new CartVersion(self.createCartForCustomer(customerEntity).getId(), 0);
+        });
+  }
+
+  // Helper method: records the change of the cart's items as a new version of the cart. Fails if
+  // another transaction changed the cart (or checked it out) since it was read, so the caller's
+  // transaction is rolled back and the change retried on the current cart.
+  private void incrementCartVersion(CartVersion cart) {
+    if (cartRepository.incrementVersion(cart.id(), cart.version()) == 0) {
+      throw new ObjectOptimisticLockingFailureException(CartEntity.class, cart.id());
+    }
+  }
+
+  // Helper method: inserts the items, batched and flushed once, and links them to the cart with a
+  // single cart_item statement
+  private void addNewItems(UUID cartId, List<Item> items) {
+    if (items.isEmpty()) {
+      return;
+    }
+    List<ItemEntity> itemEntities = new ArrayList<>(items.size());
+    for (Item item : items) {
+      itemEntities.add(itemMapper.modelToEntity(item)
+          .setProduct(productRepository.getReferenceById(item.getProductId())));
+    }
+    List<UUID> itemIds = itemRepository.saveAll(itemEntities).stream().map(ItemEntity::getId).toList();
+    itemRepository.insertCartItemJoins(cartId, itemIds);
+  }
+
+  // Helper method: the cart as returned to the client, read with one query for its items
+  private Cart getCartModel(UUID customerId, UUID cartId) {
+    CartEntity view = new CartEntity()
+        .setId(cartId)
+        .setCustomer(new CustomerEntity().setId(customerId))
+        .setItems(itemRepository.findByCartId(cartId));
+    return cartMapper.entityToModel(view);
+  }
+
   @Transactional
   public CartEntity createCartForCustomer(CustomerEntity customerEntity) {
     // --- LOGIC TO CREATE NEW CART ---
-    log.info("---> Creating new CartEntity for customer ID: {}", customerEntity.getId());
+    log.debug("---> Creating new CartEntity for customer ID: {}", customerEntity.getId());
 
     // 1. Create a new CartEntity
     CartEntity newCart = new CartEntity();
@@ -188,7 +216,55 @@ public class CartServiceImpl implements CartService {
 
     // 4. Save the new cart immediately to get an ID and persist it
     //    (This is necessary for Hibernate to manage the relationship)
-    return cartRepository.save(newCart);
+    CartEntity savedCart = cartRepository.save(newCart);
+    publisher.publishEvent(new CartChangedEvent(customerEntity.getId()));
+    return savedCart;
+  }
+
+  /**
+   * The customer's cart, created if it doesn't exist yet. Used to load carts into the {@link CartStore}.
+   */
+  @Transactional
+  public Cart getOrCreateCart(UUID customerId) {
+    return cartMapper.entityToModel(getCartEntityByCustomerId(customerId));
+  }
+
+  /**
+   * Makes the persisted cart match the given items: changed items are updated, new ones inserted and
+   * missing ones removed, in one transaction. Used to write back carts from the {@link CartStore}.
+   * Publishes no {@link CartChangedEvent}, {@link WriteBehindCartService} did when the cart changed.
+   */
+  public void saveCartItems(UUID customerId, List<Item> items) {
+    retry.run("cart.save-items", () -> writeCartItems(customerId, items));
+  }
+
+  private void writeCartItems(UUID customerId, List<Item> items) {
+    CartVersion cart = getCartVersionByCustomerId(customerId);
+    UUID cartId = cart.id();
+
+    Map<UUID, ItemEntity> persisted = new HashMap<>();
+    for (ItemEntity i : itemRepository.findByCartId(cartId)) {
+      persisted.put(i.getProduct().getId(), i);
+    }
+
+    List<Item> newItems = new ArrayList<>();
+    for (Item item : items) {
+      ItemEntity existing = persisted.remove(item.getProductId());
+      if (existing == null) {
+        newItems.add(item);
+      } else {
+        existing.setQuantity(item.getQuantity()).setPrice(new BigDecimal(item.getUnitPrice()));
+      }
+    }
+    addNewItems(cartId, newItems);
+
+    if (!persisted.isEmpty()) {
+      List<UUID> removedIds = persisted.values().stream().map(ItemEntity::getId).toList();
+      itemRepository.deleteCartItemJoinById(removedIds, cartId);
+      itemRepository.deleteUnorderedItemsByIds(removedIds);
+    }
+    incrementCartVersion(cart);
+    log.debug("---> saveCartItems: Saved {} items of cart {}", items.size(), cartId);
   }
 
   @Transactional
@@ -210,9 +286,9 @@ public class CartServiceImpl implements CartService {
     }
     // --- END VALIDATION ---
 
-    log.info("---> getCartItemByProductId: Fetching cart entity for customerId: {}", customerId);
+    log.debug("---> getCartItemByProductId: Fetching cart entity for customerId: {}", customerId);
     CartEntity entity = getCartEntityByCustomerId(customerId);
-    log.info("---> getCartItemByProductId: Cart entity found: {}", entity);
+    log.debug("---> getCartItemByProductId: Cart entity found with id: {}", entity.getId());
 
     ItemEntity itemEntity = entity.getItems().stream()
         // 1. Filter out items where the Product is null
@@ -230,9 +306,13 @@ public class CartServiceImpl implements CartService {
   // Explicitly delete records from CART_ITEM, ITEM and CART
   // No need for CascadeType.ALL or OrphanRemoval since those are unsafe
   // Because ITEM is shared with Orders and may trigger unwanted deletes if used
+  // The delete is conditional on the version of the loaded cart, so it fails if the items changed meanwhile
   @Override
-  @Transactional
   public void deleteCartByCustomerId(UUID customerId) {
+    retry.run("cart.delete", () -> deleteCart(customerId));
+  }
+
+  private void deleteCart(UUID customerId) {
     // customerId is validated by getCartEntityByCustomerId
 
     CartEntity entity = getCartEntityByCustomerId(customerId);
@@ -252,40 +332,37 @@ public class CartServiceImpl implements CartService {
     if (!itemIds.isEmpty()) {
       itemRepository.deleteUnorderedItemsByIds(itemIds);
     }
+    publisher.publishEvent(new CartChangedEvent(customerId));
   }
 
   @Override
-  @Transactional
   public void deleteItemFromCartByCustomerIdAndProductId(UUID customerId, UUID productId) {
     // --- VALIDATION ---
-    // customerId is validated by getCartEntityByCustomerId
+    // customerId is validated by getCartVersionByCustomerId
     if (productId == null) {
       throw new IllegalArgumentException("ProductId cannot be null.");
     }
     // --- END VALIDATION ---
 
-    CartEntity cartEntity = getCartEntityByCustomerId(customerId);
+    retry.run("cart.delete-item", () -> deleteItem(customerId, productId));
+  }
+
+  private void deleteItem(UUID customerId, UUID productId) {
+    CartVersion cart = getCartVersionByCustomerId(customerId);
+    UUID cartId = cart.id();
 
     // 1. Find the item to remove
-    ItemEntity itemToRemove = cartEntity.getItems().stream()
-        .filter(i -> i.getProduct() != null && i.getProduct().getId().equals(productId))
-        .findFirst()
+    ItemEntity itemToRemove = itemRepository.findByCartIdAndProductId(cartId, productId)
         .orElseThrow(() -> new ItemNotFoundException(
             String.format("Item not found in cart for Product ID: %s", productId)));
 
-    // 2. Remove the item from the Cart's collection
-    //    This removes the row from the CART_ITEM table
-    cartEntity.getItems().remove(itemToRemove);
-
-    // Save the cart to persist the collection removal
-    cartRepository.save(cartEntity);
+    // 2. Remove the row from the CART_ITEM table
+    itemRepository.deleteCartItemJoinById(List.of(itemToRemove.getId()), cartId);
 
-    // Delete item (from ITEM table) if it is not linked to an order
-    if (itemToRemove.getOrders().isEmpty()) {
-      log.info("ItemEntity with ID {} is not linked to any Order. Deleting from 'item' table.", itemToRemove.getId());
-      itemRepository.delete(itemToRemove);
-    } else {
-      log.info("ItemEntity with ID {} is linked to an Order. NOT deleting from 'item' table.", itemToRemove.getId());
-    }
+    // 3. Delete item (from ITEM table) if it is not linked to an order
+    itemRepository.deleteUnorderedItemsByIds(List.of(itemToRemove.getId()));
+    incrementCartVersion(cart);
+    publisher.publishEvent(new CartChangedEvent(customerId));
+    log.debug("Removed ItemEntity with ID {} from cart {}", itemToRemove.getId(), cartId);
   }
 }
\ No newline at end of file
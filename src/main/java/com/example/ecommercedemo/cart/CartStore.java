@@ -0,0 +1,50 @@
+package com.example.ecommercedemo.cart;
+
+import com.example.ecommercedemo.model.Cart;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Key-value store for carts, keyed by customer id, in front of the cart tables.
+ * <p>
+ * Carts written with {@link #put} are marked as changed and persisted later by
+ * {@link WriteBehindCartService}; the store itself never talks to the database. Implementations
+ * return copies, so callers may modify what they get.
+ */
+public interface CartStore {
+
+  Optional<Cart> get(UUID customerId);
+
+  /**
+   * Stores a cart as read from the database, unless the store already has one for the customer.
+   *
+   * @return the cart now in the store
+   */
+  Cart putIfAbsent(UUID customerId, Cart cart);
+
+  /**
+   * Stores a changed cart and marks it for persistence.
+   */
+  void put(UUID customerId, Cart cart);
+
+  void remove(UUID customerId);
+
+  /**
+   * Returns the customers whose carts changed since the last call, and clears their marks.
+   */
+  Set<UUID> drainChanged();
+
+  /**
+   * Clears the mark of one customer's cart.
+   *
+   * @return whether the cart was marked as changed
+   */
+  boolean drainChanged(UUID customerId);
+
+  /**
+   * Marks a cart for persistence again, e.g. after a failed write.
+   */
+  void markChanged(UUID customerId);
+}
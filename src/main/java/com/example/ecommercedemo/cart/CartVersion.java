@@ -0,0 +1,9 @@
+package com.example.ecommercedemo.cart;
+
+import java.util.UUID;
+
+/**
+ * The id of a cart and the version it had when it was read; see {@link CartRepository#incrementVersion}.
+ */
+public record CartVersion(UUID id, long version) {
+}
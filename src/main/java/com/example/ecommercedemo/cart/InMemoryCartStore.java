@@ -0,0 +1,96 @@
+package com.example.ecommercedemo.cart;
+
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Item;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CartStore} in the heap of this instance. Carts that haven't been used for the idle timeout
+ * are dropped; by then their changes have long been persisted.
+ * <p>
+ * Only suitable for a single instance. Several instances need a shared store (e.g. Redis) so a
+ * customer's requests see the same cart.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store.type", havingValue = "memory")
+public class InMemoryCartStore implements CartStore {
+
+  private final Cache<UUID, Cart> carts;
+  private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+
+  public InMemoryCartStore(
+      @Value("${app.cart.store.idle-timeout:PT30M}") Duration idleTimeout,
+      MeterRegistry meterRegistry) {
+    this.carts = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().expireAfterAccess(idleTimeout).recordStats().build(), "cart.store");
+  }
+
+  @Override
+  public Optional<Cart> get(UUID customerId) {
+    return Optional.ofNullable(carts.getIfPresent(customerId)).map(InMemoryCartStore::copy);
+  }
+
+  @Override
+  public Cart putIfAbsent(UUID customerId, Cart cart) {
+    Cart stored = carts.asMap().putIfAbsent(customerId, copy(cart));
+    return copy(stored != null ? stored : cart);
+  }
+
+  @Override
+  public void put(UUID customerId, Cart cart) {
+    carts.put(customerId, copy(cart));
+    changed.add(customerId);
+  }
+
+  @Override
+  public void remove(UUID customerId) {
+    changed.remove(customerId);
+    carts.invalidate(customerId);
+  }
+
+  @Override
+  public Set<UUID> drainChanged() {
+    Set<UUID> drained = new HashSet<>();
+    for (UUID customerId : changed) {
+      if (changed.remove(customerId)) {
+        drained.add(customerId);
+      }
+    }
+    return drained;
+  }
+
+  @Override
+  public boolean drainChanged(UUID customerId) {
+    return changed.remove(customerId);
+  }
+
+  @Override
+  public void markChanged(UUID customerId) {
+    changed.add(customerId);
+  }
+
+  // Stored carts are never handed out; the controllers add links to the models they get
+  private static Cart copy(Cart cart) {
+    return new Cart()
+        .id(cart.getId())
+        .customerId(cart.getCustomerId())
+        .items(cart.getItems() == null ? null : cart.getItems().stream()
+            .map(i -> new Item().productId(i.getProductId()).quantity(i.getQuantity()).unitPrice(i.getUnitPrice()))
+            .collect(Collectors.toCollection(ArrayList::new)));
+  }
+}
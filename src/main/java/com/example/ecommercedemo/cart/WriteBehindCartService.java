@@ -0,0 +1,343 @@
+package com.example.ecommercedemo.cart;
+
+import com.example.ecommercedemo.exception.ItemAlreadyExistsException;
+import com.example.ecommercedemo.exception.ItemNotFoundException;
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Item;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Serves carts from the {@link CartStore} and writes changes back to the database asynchronously,
+ * so adding, replacing and removing items doesn't need a database connection.
+ * <p>
+ * Changed carts are persisted by {@link CartServiceImpl#saveCartItems} every flush interval, and
+ * synchronously before checkout (see {@link #flushForCheckout(UUID)}). Deleting a whole cart is
+ * rare and goes to the database directly.
+ * <p>
+ * Changes of one customer are serialized with a lock per customer (striped), which is also held
+ * while the cart is persisted, so a write-back never interleaves with a change or a checkout.
+ * <p>
+ * A cart that fails to persist {@code app.cart.store.max-write-attempts} times in a row (e.g. it
+ * references a deleted product) is dropped from the store and logged, so the customer gets the
+ * persisted cart back instead of a change that is never saved. On shutdown the changed carts are
+ * persisted once more, after the web server has stopped taking requests.
+ */
+@Service
+@Primary
+@Validated
+@ConditionalOnProperty(name = "app.cart.store.type", havingValue = "memory")
+public class WriteBehindCartService implements CartService, SmartLifecycle {
+
+  private final static Logger log = LoggerFactory.getLogger(WriteBehindCartService.class);
+
+  private static final int LOCK_STRIPES = 64;
+
+  // Stops after the web server (DEFAULT_PHASE - 2048), so no change arrives after the final flush;
+  // the data source is closed later, when the beans are destroyed
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private static final String METRIC_PREFIX = "cart.store.write-back";
+
+  private final CartServiceImpl delegate;
+  private final CartStore store;
+  private final ApplicationEventPublisher publisher;
+  private final int maxWriteAttempts;
+  private final Lock[] locks = new Lock[LOCK_STRIPES];
+  // Failed writes in a row per customer, guarded by the customer's lock
+  private final Map<UUID, Integer> failedWrites = new ConcurrentHashMap<>();
+  private final Counter writeFailures;
+  private final Counter droppedCarts;
+  private volatile boolean running;
+
+  public WriteBehindCartService(
+      CartServiceImpl delegate, CartStore store, ApplicationEventPublisher publisher,
+      @Value("${app.cart.store.max-write-attempts:5}") int maxWriteAttempts,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.store = store;
+    this.publisher = publisher;
+    this.maxWriteAttempts = maxWriteAttempts;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+    this.writeFailures = Counter.builder(METRIC_PREFIX + ".failures")
+        .description("Failed writes of changed carts to the database")
+        .register(meterRegistry);
+    this.droppedCarts = Counter.builder(METRIC_PREFIX + ".dropped")
+        .description("Changed carts dropped after failing to persist on every attempt")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Cart addItemToCart(UUID customerId, Item item) {
+    if (item == null) {
+      throw new IllegalArgumentException("Item cannot be null.");
+    }
+    if (item.getProductId() == null) {
+      throw new IllegalArgumentException("ProductId cannot be null.");
+    }
+
+    return change(customerId, items -> {
+      if (indexOf(items, item.getProductId()) >= 0) {
+        throw new ItemAlreadyExistsException(
+            String.format("Item with Id (%s) already exists.", item.getProductId()));
+      }
+      items.add(copy(item));
+      return items;
+    });
+  }
+
+  @Override
+  public Cart replaceItemInCart(UUID customerId, Item itemToUpdate) {
+    if (itemToUpdate == null) {
+      throw new IllegalArgumentException("Item cannot be null.");
+    }
+    if (itemToUpdate.getProductId() == null) {
+      throw new IllegalArgumentException("ProductId cannot be null.");
+    }
+
+    return change(customerId, items -> {
+      int index = indexOf(items, itemToUpdate.getProductId());
+      if (index >= 0) {
+        items.set(index, copy(itemToUpdate));
+      } else {
+        items.add(copy(itemToUpdate));
+      }
+      return items;
+    });
+  }
+
+  @Override
+  public Optional<Cart> getCartByCustomerId(UUID customerId) {
+    if (customerId == null) {
+      throw new IllegalArgumentException("CustomerId cannot be null.");
+    }
+    // Don't create a cart just for reading it
+    return store.get(customerId)
+        .or(() -> delegate.getCartByCustomerId(customerId).map(cart -> store.putIfAbsent(customerId, cart)));
+  }
+
+  @Override
+  public List<Item> getCartItemsByCustomerId(UUID customerId) {
+    return current(customerId).getItems();
+  }
+
+  @Override
+  public Item getCartItemByProductId(UUID customerId, UUID productId) {
+    if (productId == null) {
+      throw new IllegalArgumentException("ProductId cannot be null.");
+    }
+
+    List<Item> items = current(customerId).getItems();
+    int index = indexOf(items, productId);
+    if (index < 0) {
+      throw new ItemNotFoundException(
+          String.format(" for Customer ID: %s and Product ID: %s", customerId, productId));
+    }
+    return items.get(index);
+  }
+
+  @Override
+  public void deleteCartByCustomerId(UUID customerId) {
+    Lock lock = lockFor(customerId);
+    lock.lock();
+    try {
+      store.remove(customerId);
+      failedWrites.remove(customerId);
+      delegate.deleteCartByCustomerId(customerId);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void deleteItemFromCartByCustomerIdAndProductId(UUID customerId, UUID productId) {
+    if (productId == null) {
+      throw new IllegalArgumentException("ProductId cannot be null.");
+    }
+
+    change(customerId, items -> {
+      int index = indexOf(items, productId);
+      if (index < 0) {
+        throw new ItemNotFoundException(
+            String.format("Item not found in cart for Product ID: %s", productId));
+      }
+      items.remove(index);
+      return items;
+    });
+  }
+
+  /**
+   * Persists the carts changed since the last run.
+   */
+  @Scheduled(
+      initialDelayString = "${app.cart.store.flush-interval:PT5S}",
+      fixedDelayString = "${app.cart.store.flush-interval:PT5S}")
+  public void flushChanged() {
+    for (UUID customerId : store.drainChanged()) {
+      Lock lock = lockFor(customerId);
+      lock.lock();
+      try {
+        persist(customerId);
+        failedWrites.remove(customerId);
+      } catch (RuntimeException e) {
+        writeFailed(customerId, e);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  // Keeps the change for the next run, unless the cart failed too often to expect it to succeed
+  private void writeFailed(UUID customerId, RuntimeException e) {
+    writeFailures.increment();
+    int failures = failedWrites.merge(customerId, 1, Integer::sum);
+    if (failures < maxWriteAttempts) {
+      log.warn("Persisting cart of customer {} failed ({} of {} attempts), will retry",
+          customerId, failures, maxWriteAttempts, e);
+      store.markChanged(customerId);
+      return;
+    }
+    failedWrites.remove(customerId);
+    droppedCarts.increment();
+    log.error("Persisting cart of customer {} failed {} times, dropping the unsaved items {}",
+        customerId, failures, store.get(customerId).map(Cart::getItems).orElse(List.of()), e);
+    store.remove(customerId);
+    // The customer gets the persisted cart again
+    publisher.publishEvent(new CartChangedEvent(customerId));
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    log.info("Persisting changed carts before shutdown");
+    flushChanged();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  /**
+   * Writes the customer's cart to the database within the current (checkout) transaction, so the
+   * order is placed from the latest items. Changes of the customer wait until the transaction has
+   * completed; the stored cart is then dropped, because checkout empties the cart in the database.
+   */
+  public void flushForCheckout(UUID customerId) {
+    Lock lock = lockFor(customerId);
+    lock.lock();
+    boolean changed = store.drainChanged(customerId);
+    try {
+      if (changed) {
+        persist(customerId);
+      }
+    } catch (RuntimeException e) {
+      store.markChanged(customerId);
+      lock.unlock();
+      throw e;
+    }
+
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      store.remove(customerId);
+      failedWrites.remove(customerId);
+      lock.unlock();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        try {
+          if (status == STATUS_COMMITTED) {
+            store.remove(customerId);
+            failedWrites.remove(customerId);
+          } else if (changed) {
+            // The write was rolled back with the order; the store still has the items
+            store.markChanged(customerId);
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+    });
+  }
+
+  private void persist(UUID customerId) {
+    Optional<Cart> cart = store.get(customerId);
+    if (cart.isPresent()) {
+      delegate.saveCartItems(customerId, cart.get().getItems());
+    }
+  }
+
+  private Cart change(UUID customerId, Function<List<Item>, List<Item>> change) {
+    Lock lock = lockFor(customerId);
+    lock.lock();
+    try {
+      Cart cart = current(customerId);
+      cart.setItems(change.apply(new ArrayList<>(cart.getItems())));
+      store.put(customerId, cart);
+      publisher.publishEvent(new CartChangedEvent(customerId));
+      return cart;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Cart current(UUID customerId) {
+    if (customerId == null) {
+      throw new IllegalArgumentException("CustomerId cannot be null.");
+    }
+    return store.get(customerId)
+        .orElseGet(() -> store.putIfAbsent(customerId, delegate.getOrCreateCart(customerId)));
+  }
+
+  private Lock lockFor(UUID customerId) {
+    return locks[Math.floorMod(customerId.hashCode(), LOCK_STRIPES)];
+  }
+
+  private static int indexOf(List<Item> items, UUID productId) {
+    for (int i = 0; i < items.size(); i++) {
+      if (productId.equals(items.get(i).getProductId())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static Item copy(Item item) {
+    return new Item().productId(item.getProductId()).quantity(item.getQuantity()).unitPrice(item.getUnitPrice());
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.ecommercedemo.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyConfig implements WebMvcConfigurer {
+
+  private final int maxRequests;
+  private final Duration maxWait;
+  private final Duration retryAfter;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  public ConcurrencyConfig(
+      @Value("${app.concurrency.max-requests:0}") int maxRequests,
+      @Value("${app.concurrency.max-wait:PT1S}") Duration maxWait,
+      @Value("${app.concurrency.retry-after:PT1S}") Duration retryAfter,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    this.maxRequests = maxRequests;
+    this.maxWait = maxWait;
+    this.retryAfter = retryAfter;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    if (maxRequests > 0) {
+      // Health and metrics must answer when the application is overloaded
+      registry.addInterceptor(new RequestConcurrencyLimiter(maxRequests, maxWait, retryAfter, meterRegistry.getObject()))
+          .excludePathPatterns("/actuator/**");
+    }
+  }
+}
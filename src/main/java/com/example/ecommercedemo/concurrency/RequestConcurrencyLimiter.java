@@ -0,0 +1,85 @@
+package com.example.ecommercedemo.concurrency;
+
+import com.example.ecommercedemo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests handled at the same time ({@code app.concurrency.max-requests},
+ * 0 = no limit). Requests over the limit wait up to {@code max-wait} for a slot, then get a 503
+ * with Retry-After.
+ * <p>
+ * With platform threads the Tomcat thread pool is the limit. With virtual threads there is none:
+ * every request gets a thread, and under overload they all queue for the 10 database connections
+ * until the pool's connection timeout, holding their memory and failing late. The limit keeps the
+ * queue in front of the application, where waiting is cheap and rejecting is fast.
+ * <p>
+ * Registered by {@link ConcurrencyConfig} when enabled.
+ */
+public class RequestConcurrencyLimiter implements HandlerInterceptor {
+
+  private static final Logger log = LoggerFactory.getLogger(RequestConcurrencyLimiter.class);
+
+  private static final String METRIC_PREFIX = "http.server.requests.concurrency";
+  private static final String PERMIT_ATTRIBUTE = RequestConcurrencyLimiter.class.getName() + ".permit";
+
+  private final Duration maxWait;
+  private final Duration retryAfter;
+  private final Semaphore permits;
+  private final Counter rejected;
+
+  RequestConcurrencyLimiter(int maxRequests, Duration maxWait, Duration retryAfter, MeterRegistry meterRegistry) {
+    this.maxWait = maxWait;
+    this.retryAfter = retryAfter;
+    // Fair, so waiting requests are served in arrival order
+    this.permits = new Semaphore(maxRequests, true);
+
+    Gauge.builder(METRIC_PREFIX + ".active", permits, p -> maxRequests - p.availablePermits())
+        .description("Requests being handled")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".waiting", permits, Semaphore::getQueueLength)
+        .description("Requests waiting for a slot")
+        .register(meterRegistry);
+    this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+        .description("Requests rejected with 503 after waiting max-wait")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    // A forward within the request already holds the permit
+    if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+      return true;
+    }
+    try {
+      if (!permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+        rejected.increment();
+        log.debug("No request slot within {} for {} {}", maxWait, request.getMethod(), request.getRequestURI());
+        throw new ServiceOverloadedException(retryAfter);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ServiceOverloadedException(retryAfter);
+    }
+    request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      permits.release();
+    }
+  }
+}
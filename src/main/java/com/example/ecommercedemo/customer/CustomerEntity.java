@@ -4,6 +4,8 @@ import com.example.ecommercedemo.address.AddressEntity;
 import com.example.ecommercedemo.card.CardEntity;
 import com.example.ecommercedemo.cart.CartEntity;
 import com.example.ecommercedemo.order.OrderEntity;
+import com.example.ecommercedemo.order.OrderEntityListener;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -14,6 +16,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "customer")
+@EntityListeners(OrderEntityListener.class) // orders embed the customer
 @Getter
 @Setter
 @ToString(onlyExplicitlyIncluded = true)
@@ -21,7 +24,7 @@ import java.util.UUID;
 @Accessors(chain = true) // Enable fluent api, makes the setters return 'this'
 public class CustomerEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
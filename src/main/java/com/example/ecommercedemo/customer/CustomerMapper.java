@@ -1,7 +1,6 @@
 package com.example.ecommercedemo.customer;
 
 import com.example.ecommercedemo.model.Customer;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -16,9 +15,13 @@ public class CustomerMapper {
 
     Customer resource = new Customer();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setId(entity.getId());
+    resource.id(entity.getId())
+        .username(entity.getUsername())
+        .firstName(entity.getFirstName())
+        .lastName(entity.getLastName())
+        .email(entity.getEmail())
+        .phone(entity.getPhone())
+        .status(entity.getStatus());
     return resource;
   }
 
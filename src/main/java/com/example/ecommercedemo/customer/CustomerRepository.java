@@ -1,8 +1,13 @@
 package com.example.ecommercedemo.customer;
 
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CustomerRepository extends JpaRepository<CustomerEntity, UUID> {
@@ -13,4 +18,10 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, UUID>
   boolean existsById(@NotNull UUID id);
 
   boolean existsByUsername(@NotNull String username);
+
+  // Keyset page, see KeysetPage. The cart is an inverse one-to-one that Hibernate would otherwise
+  // load with a query per customer
+  @EntityGraph(attributePaths = "cart")
+  @Query("select c from CustomerEntity c where c.id > :after order by c.id")
+  List<CustomerEntity> findPageAfter(@Param("after") UUID after, Pageable pageable);
 }
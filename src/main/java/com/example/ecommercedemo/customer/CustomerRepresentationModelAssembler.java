@@ -8,18 +8,32 @@ import com.example.ecommercedemo.model.Customer;
 import com.example.ecommercedemo.order.OrderController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class CustomerRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Customer, Customer> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(CustomerController.class).getCustomerById(arg(0)));
+  private static final LinkTemplate CUSTOMERS =
+      LinkTemplate.of(methodOn(AdminController.class).getAllCustomers(null, null));
+  private static final LinkTemplate ADDRESSES =
+      LinkTemplate.of(methodOn(AddressController.class).getCustomerAddresses(arg(0)));
+  private static final LinkTemplate CARDS =
+      LinkTemplate.of(methodOn(CardController.class).getCustomerCards(arg(0)));
+  private static final LinkTemplate CART =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCart(arg(0)));
+  private static final LinkTemplate ORDERS =
+      LinkTemplate.of(methodOn(OrderController.class).getCustomerOrders(arg(0)));
+
   private final static Logger logger = LoggerFactory.getLogger(CustomerRepresentationModelAssembler.class);
 
   /**
@@ -38,20 +52,20 @@ public class CustomerRepresentationModelAssembler extends
   @Override
   public Customer toModel(Customer resource) {
 
-    logger.info("CustomerRepresentationModelAssembler toModel, for customer username {}", resource.getUsername());
+    logger.debug("CustomerRepresentationModelAssembler toModel, for customer username {}", resource.getUsername());
 
     // 3. Add HATEOAS links
-    resource.add(linkTo(methodOn(CustomerController.class).getCustomerById(resource.getId())).withSelfRel());
+    resource.add(SELF.selfLink(resource.getId()));
 
-    resource.add(linkTo(methodOn(AdminController.class).getAllCustomers()).withRel("customers"));
+    resource.add(CUSTOMERS.link("customers"));
 
-    resource.add(linkTo(methodOn(AddressController.class).getCustomerAddresses(resource.getId())).withRel("addresses"));
+    resource.add(ADDRESSES.link("addresses", resource.getId()));
 
-    resource.add(linkTo(methodOn(CardController.class).getCustomerCards(resource.getId())).withRel("cards"));
+    resource.add(CARDS.link("cards", resource.getId()));
 
-    resource.add(linkTo(methodOn(CartController.class).getCustomerCart(resource.getId())).withRel("cart"));
+    resource.add(CART.link("cart", resource.getId()));
 
-    resource.add(linkTo(methodOn(OrderController.class).getCustomerOrders(resource.getId())).withRel("orders"));
+    resource.add(ORDERS.link("orders", resource.getId()));
 
     return resource;
   }
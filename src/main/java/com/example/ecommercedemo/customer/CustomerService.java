@@ -4,6 +4,7 @@ import com.example.ecommercedemo.model.Customer;
 import com.example.ecommercedemo.model.CustomerReq;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +14,7 @@ public interface CustomerService {
   Customer createCustomer(@Valid CustomerReq customerReq);
   Customer updateCustomer(@NotNull(message = "Customer UUID cannot be null.") UUID id, @Valid CustomerReq customerReq);
   List<Customer> getAllCustomers();
+  Slice<Customer> getCustomersAfter(@NotNull(message = "Cursor UUID cannot be null.") UUID after, int limit);
   Optional<Customer> getCustomerById(@NotNull(message = "Customer UUID cannot be null.") UUID id);
   void deleteCustomerById(@NotNull(message = "Customer UUID cannot be null.") UUID id);
 }
@@ -5,8 +5,10 @@ import com.example.ecommercedemo.exception.CustomerNotFoundException;
 import com.example.ecommercedemo.exception.ErrorCode;
 import com.example.ecommercedemo.model.Customer;
 import com.example.ecommercedemo.model.CustomerReq;
+import com.example.ecommercedemo.persistence.KeysetPage;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -95,6 +97,13 @@ public class CustomerServiceImpl implements CustomerService {
     return customerMapper.entityToModelList(entities);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<Customer> getCustomersAfter(UUID after, int limit) {
+    return KeysetPage.of(customerRepository.findPageAfter(after, KeysetPage.request(limit)), limit)
+        .map(customerMapper::entityToModel);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Optional<Customer> getCustomerById(UUID id) {
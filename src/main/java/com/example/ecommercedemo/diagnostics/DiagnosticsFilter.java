@@ -0,0 +1,51 @@
+package com.example.ecommercedemo.diagnostics;
+
+import com.example.ecommercedemo.auth.RoleEnum;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns on verbose logging (SQL statements, debug output of the application) for a single request
+ * when an admin sends the {@value #HEADER} header, see {@link DiagnosticsTurboFilter}.
+ * <p>
+ * Runs after the security filter chain. Requests of other users ignore the header, so clients can't
+ * flood the logs.
+ */
+@Component
+public class DiagnosticsFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Diagnostics";
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    if (!"true".equalsIgnoreCase(request.getHeader(HEADER)) || !isAdmin()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    MDC.put(DiagnosticsTurboFilter.MDC_KEY, "true");
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(DiagnosticsTurboFilter.MDC_KEY);
+    }
+  }
+
+  private static boolean isAdmin() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null
+        && authentication.getAuthorities().stream()
+            .anyMatch(a -> RoleEnum.Const.ADMIN.equals(a.getAuthority()));
+  }
+}
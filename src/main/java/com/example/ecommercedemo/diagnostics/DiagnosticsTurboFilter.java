@@ -0,0 +1,50 @@
+package com.example.ecommercedemo.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enables all levels of the configured loggers for requests that asked for diagnostics (see
+ * {@link DiagnosticsFilter}), regardless of the configured log levels. Other requests are not
+ * affected, so e.g. SQL statements can be traced for one request on a production instance.
+ * <p>
+ * Configured in {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="com.example.ecommercedemo.diagnostics.DiagnosticsTurboFilter"&gt;
+ *   &lt;loggerPrefix&gt;org.hibernate.SQL&lt;/loggerPrefix&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class DiagnosticsTurboFilter extends TurboFilter {
+
+  public static final String MDC_KEY = "diagnostics";
+
+  private final List<String> loggerPrefixes = new ArrayList<>();
+
+  public void addLoggerPrefix(String loggerPrefix) {
+    loggerPrefixes.add(loggerPrefix.trim());
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // Called for every log statement, also the disabled ones; keep the common case cheap
+    if (!isStarted() || MDC.get(MDC_KEY) == null) {
+      return FilterReply.NEUTRAL;
+    }
+    String name = logger.getName();
+    for (String prefix : loggerPrefixes) {
+      if (name.startsWith(prefix)) {
+        return FilterReply.ACCEPT;
+      }
+    }
+    return FilterReply.NEUTRAL;
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.ecommercedemo.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, from the JFR event
+ * {@code jdk.VirtualThreadPinned}. On Java 21 a virtual thread that blocks inside a
+ * {@code synchronized} block (or a native frame) can't unmount, so it holds one of the few carrier
+ * threads; enough of those at once and all virtual threads stall.
+ * <p>
+ * Every pinning is recorded in the {@code jvm.threads.virtual.pinned} timer. The stack trace is
+ * logged once per call site, so a hot spot (a driver, a logging appender, our own locks) shows up
+ * without flooding the log.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 20;
+  private static final int MAX_CALL_SITES = 1000;
+
+  private final Duration threshold;
+  private final Timer pinned;
+  private final Set<String> loggedCallSites = ConcurrentHashMap.newKeySet();
+  private volatile RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(
+      @Value("${app.diagnostics.pinning.threshold:PT0.02S}") Duration threshold,
+      MeterRegistry meterRegistry) {
+    this.threshold = threshold;
+    this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+        .description("Time virtual threads were blocked while pinned to their carrier thread")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    RecordingStream recordingStream = new RecordingStream();
+    recordingStream.enable(EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(EVENT, this::onPinned);
+    recordingStream.startAsync();
+    stream = recordingStream;
+    log.info("Reporting virtual threads pinned for more than {}", threshold);
+  }
+
+  @Override
+  public void stop() {
+    RecordingStream recordingStream = stream;
+    stream = null;
+    if (recordingStream != null) {
+      recordingStream.close();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return stream != null;
+  }
+
+  void onPinned(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    List<RecordedFrame> frames = frames(event.getStackTrace());
+    String callSite = callSite(frames);
+    if (loggedCallSites.size() < MAX_CALL_SITES && loggedCallSites.add(callSite)) {
+      log.warn("Virtual thread pinned for {} ms at {}:{}", event.getDuration().toMillis(), callSite,
+          frames.stream().map(frame -> "\n\tat " + describe(frame)).collect(Collectors.joining()));
+    } else {
+      log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), callSite);
+    }
+  }
+
+  private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return List.of();
+    }
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    return frames.subList(0, Math.min(LOGGED_FRAMES, frames.size()));
+  }
+
+  // The first frame outside the JDK: the top frames are the same parking code for every event
+  private static String callSite(List<RecordedFrame> frames) {
+    return frames.stream()
+        .filter(frame -> !isJdk(frame.getMethod().getType().getName()))
+        .findFirst()
+        .or(() -> frames.stream().findFirst())
+        .map(VirtualThreadPinningMonitor::describe)
+        .orElse("unknown");
+  }
+
+  private static boolean isJdk(String className) {
+    return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+        + "(line " + frame.getLineNumber() + ")";
+  }
+}
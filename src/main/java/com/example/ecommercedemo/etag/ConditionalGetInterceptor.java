@@ -0,0 +1,71 @@
+package com.example.ecommercedemo.etag;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Answers conditional GETs from a revision tag ({@link ResourceRevisions}) before the handler runs:
+ * a matching If-None-Match gets a 304 without reading or mapping anything, any other request gets
+ * the ETag and is handled as usual. The tag is taken before the handler reads, so a change in
+ * between can only make the next request miss, never return outdated content as current.
+ * <p>
+ * The representation also depends on the Accept header (JSON or XML) and on the base URI of the
+ * HATEOAS links, so both are part of the ETag.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+  private final Function<UUID, Optional<String>> tags;
+
+  /**
+   * @param tags the tag of the resource identified by the {@code id} path variable (null for
+   *             paths without one), empty when it can't be told cheaply
+   */
+  ConditionalGetInterceptor(Function<UUID, Optional<String>> tags) {
+    this.tags = tags;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+      return true;
+    }
+    UUID id = null;
+    String idVariable = idVariable(request);
+    if (idVariable != null) {
+      try {
+        id = UUID.fromString(idVariable);
+      } catch (IllegalArgumentException ex) {
+        return true; // the handler rejects it
+      }
+    }
+    Optional<String> tag = tags.apply(id);
+    if (tag.isEmpty()) {
+      return true;
+    }
+    String etag = "\"" + tag.get() + "-" + variant(request) + "\"";
+    return !new ServletWebRequest(request, response).checkNotModified(etag);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String idVariable(HttpServletRequest request) {
+    Map<String, String> variables =
+        (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    return variables == null ? null : variables.get("id");
+  }
+
+  private static String variant(HttpServletRequest request) {
+    String baseUri = ServletUriComponentsBuilder.fromContextPath(request).toUriString();
+    return Integer.toHexString(Objects.hash(request.getHeader(HttpHeaders.ACCEPT), baseUri));
+  }
+}
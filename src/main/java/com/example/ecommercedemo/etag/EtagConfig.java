@@ -0,0 +1,38 @@
+package com.example.ecommercedemo.etag;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Optional;
+
+/**
+ * ETags and conditional GETs for the catalog, carts and orders. Other responses carry no ETag: a
+ * tag computed from the body (ShallowEtagHeaderFilter) saves bandwidth, but not the work of
+ * producing the body, and buffers every response in full.
+ */
+@Configuration
+public class EtagConfig implements WebMvcConfigurer {
+
+  // Not present in web slices (@WebMvcTest), which leave out the repositories
+  private final ObjectProvider<ResourceRevisions> resourceRevisions;
+
+  public EtagConfig(ObjectProvider<ResourceRevisions> resourceRevisions) {
+    this.resourceRevisions = resourceRevisions;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    ResourceRevisions revisions = resourceRevisions.getIfAvailable();
+    if (revisions == null) {
+      return;
+    }
+    registry.addInterceptor(new ConditionalGetInterceptor(id -> Optional.of(revisions.catalogTag())))
+        .addPathPatterns("/api/v1/products", "/api/v1/products/*");
+    registry.addInterceptor(new ConditionalGetInterceptor(customerId -> Optional.of(revisions.cartTag(customerId))))
+        .addPathPatterns("/api/v1/customers/*/cart");
+    registry.addInterceptor(new ConditionalGetInterceptor(revisions::orderTag))
+        .addPathPatterns("/api/v1/orders/*");
+  }
+}
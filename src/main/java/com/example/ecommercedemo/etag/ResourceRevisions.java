@@ -0,0 +1,100 @@
+package com.example.ecommercedemo.etag;
+
+import com.example.ecommercedemo.cart.CartChangedEvent;
+import com.example.ecommercedemo.order.OrderChangedEvent;
+import com.example.ecommercedemo.order.OrderRepository;
+import com.example.ecommercedemo.product.ProductCatalogChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Revision counters behind the ETags of the catalog, carts (per customer) and orders (per customer,
+ * orders embed the customer). Changes made via the application bump the revision right after
+ * commit; the time to live bounds staleness for changes made outside the application, as it does
+ * for the catalog cache.
+ * <p>
+ * Tags start with a random epoch, so tags handed out before a restart, or by another instance,
+ * never match.
+ */
+@Component
+public class ResourceRevisions {
+
+  private static final String CATALOG = "catalog";
+
+  private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+  private final Revisions<String> catalog;
+  private final Revisions<UUID> carts;
+  private final Revisions<UUID> orders;
+  // The customer of an order never changes, so it only expires to bound the memory
+  private final Cache<UUID, UUID> orderCustomers;
+
+  private final OrderRepository orderRepository;
+
+  public ResourceRevisions(
+      @Value("${app.etag.maximum-size:100000}") long maximumSize,
+      @Value("${app.etag.time-to-live:PT10M}") Duration timeToLive,
+      OrderRepository orderRepository,
+      MeterRegistry meterRegistry) {
+    this.catalog = new Revisions<>(newCache(1, timeToLive));
+    this.carts = new Revisions<>(CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "etag.carts"));
+    this.orders = new Revisions<>(CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "etag.orders"));
+    this.orderCustomers = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "etag.order-customers");
+    this.orderRepository = orderRepository;
+  }
+
+  public String catalogTag() {
+    return tag(catalog.current(CATALOG));
+  }
+
+  public String cartTag(UUID customerId) {
+    return tag(carts.current(customerId));
+  }
+
+  /**
+   * The tag of an order, empty for an unknown order. Looks up the order's customer once.
+   */
+  public Optional<String> orderTag(UUID orderId) {
+    return Optional.ofNullable(orderCustomers.get(orderId, id -> orderRepository.findCustomerIdById(id).orElse(null)))
+        .map(customerId -> tag(orders.current(customerId)));
+  }
+
+  @Order(2) // after ProductCatalogCache and ProductSnapshotStore, so a new tag never gets outdated content
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(ProductCatalogChangedEvent event) {
+    catalog.changed(CATALOG);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCartChanged(CartChangedEvent event) {
+    carts.changed(event.customerId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOrderChanged(OrderChangedEvent event) {
+    orders.changed(event.customerId());
+  }
+
+  private String tag(long revision) {
+    return epoch + "-" + Long.toString(revision, 36);
+  }
+
+  private static <K, V> Cache<K, V> newCache(long maximumSize, Duration timeToLive) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build();
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.ecommercedemo.etag;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revision numbers per key. A key that isn't in the cache, because it was never read, was changed,
+ * expired or was evicted, gets a number that was never handed out before. So a lost entry only
+ * costs a full response, it never makes an outdated ETag match.
+ */
+final class Revisions<K> {
+
+  private final AtomicLong counter = new AtomicLong();
+  private final Cache<K, Long> revisions;
+
+  Revisions(Cache<K, Long> revisions) {
+    this.revisions = revisions;
+  }
+
+  long current(K key) {
+    return revisions.get(key, k -> counter.incrementAndGet());
+  }
+
+  void changed(K key) {
+    revisions.invalidate(key);
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.ecommercedemo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+
+@Getter
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+  private final String errMsgKey;
+  private final String errorCode;
+
+  public ConcurrentUpdateException(final String message, Throwable cause) {
+    super(message, cause);
+    this.errMsgKey = ErrorCode.CONCURRENT_UPDATE.getErrMsgKey();
+    this.errorCode = ErrorCode.CONCURRENT_UPDATE.getErrCode();
+  }
+}
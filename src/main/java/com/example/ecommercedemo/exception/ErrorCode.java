@@ -19,6 +19,7 @@ public enum ErrorCode {
   JSON_PARSE_ERROR("PACKT-0013", "Make sure request payload should be a valid JSON object."),
   HTTP_MESSAGE_NOT_READABLE("PACKT-0014", "Make sure request payload should be a valid JSON or XML object according to 'Content-Type'."),
   HTTP_REQUEST_METHOD_NOT_SUPPORTED("PACKT-0015", "Request method not supported."),
+  SERVICE_OVERLOADED("PACKT-0016", "The system is busy. Retry the request later."),
   CONSTRAINT_VIOLATION("PACKT-0020", "Validation failed."),
   ILLEGAL_ARGUMENT_EXCEPTION("PACKT-0021", "Invalid data passed."),
   PRODUCT_NOT_FOUND("PACKT-0030", "Product not found"),
@@ -29,6 +30,7 @@ public enum ErrorCode {
   ITEM_ALREADY_EXISTS("PACKT-0051", "Item already exists."),
   CARD_ALREADY_EXISTS("PACKT-0052", "Card already exists."),
   USERNAME_ALREADY_EXISTS("PACKT-0053", "Username already exists."),
+  CONCURRENT_UPDATE("PACKT-0054", "The resource was changed by another request at the same time. Reload it and retry."),
   ADDRESS_CREATION_FAILED("PACKT-0060", "AAddress creation failed."),
   ORDER_CREATION_FAILED("PACKT-0061", "Order creation failed."),
   ACCESS_DENIED("PACKT-0070", "Access Denied."),
@@ -14,6 +14,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -74,6 +76,23 @@ public class RestApiErrorHandler {
     return new ResponseEntity<>(error, HttpStatus.CONFLICT);
   }
 
+  // Optimistic locking failures are retried in the services (OptimisticLockRetry); what arrives here
+  // either conflicted on every attempt or came from a write without retry
+  @ExceptionHandler({ConcurrentUpdateException.class, OptimisticLockingFailureException.class})
+  public ResponseEntity<Error> concurrentUpdateException(HttpServletRequest request, RuntimeException ex, Locale locale) {
+    log.warn("Concurrent update (409): {} for {} {}", ex.getMessage(), request.getMethod(), request.getRequestURL());
+
+    Error error = ErrorUtils
+        .createError(ErrorCode.CONCURRENT_UPDATE.getErrMsgKey(),
+            ErrorCode.CONCURRENT_UPDATE.getErrCode(),
+            HttpStatus.CONFLICT.value()) // 409 Conflict
+        .setMessage(ErrorCode.CONCURRENT_UPDATE.getErrMsgKey())
+        .setUrl(request.getRequestURL().toString())
+        .setReqMethod(request.getMethod());
+
+    return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(CartNotFoundException.class)
   public ResponseEntity<Error> cartNotFoundException(HttpServletRequest request, CartNotFoundException ex, Locale locale) {
     log.warn("Cart Not Found (404): {} for {} {}", ex.getMessage(), request.getMethod(), request.getRequestURL());
@@ -378,11 +397,29 @@ public class RestApiErrorHandler {
     return new ResponseEntity<>(error, HttpStatus.NOT_ACCEPTABLE);
   }
 
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ResponseEntity<Error> serviceOverloadedException(HttpServletRequest request, ServiceOverloadedException ex, Locale locale) {
+    // Expected under load and counted in metrics, logging each one would add to the load
+    log.debug("Service overloaded (503): {} for {} {}", ex.getMessage(), request.getMethod(), request.getRequestURL());
+
+    Error error = ErrorUtils
+        .createError(ex.getErrMsgKey(), ex.getErrorCode(),
+            HttpStatus.SERVICE_UNAVAILABLE.value()) // 503 Service Unavailable
+        .setMessage(ex.getMessage())
+        .setUrl(request.getRequestURL().toString())
+        .setReqMethod(request.getMethod());
+
+    // Retry-After takes whole seconds
+    long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+        .body(error);
+  }
+
   @ExceptionHandler(AuthenticationException.class)
   public ResponseEntity<Error> handleAuthenticationException(
       HttpServletRequest request, AuthenticationException ex, Locale locale) {
-    log.info("exception = " + ex);
-    log.info("exception.getCause() = " + ex.getCause());
+    log.debug("Authentication failed: {} (cause: {})", ex, ex.getCause());
     String errorMsg = "";
     if (ex instanceof InsufficientAuthenticationException) {
       errorMsg = ex.getMessage();
@@ -401,8 +438,7 @@ public class RestApiErrorHandler {
   @ExceptionHandler(AccessDeniedException.class)
   public ResponseEntity<Error> handleAccessDeniedException(
       HttpServletRequest request, AccessDeniedException ex, Locale locale) {
-    log.info("exception = " + ex);
-    log.info("exception.getCause() = " + ex.getCause());
+    log.debug("Access denied: {} (cause: {})", ex, ex.getCause());
     // InvalidRefreshTokenException
     String errorMsg =
         String.format("%s %s", ErrorCode.ACCESS_DENIED.getErrMsgKey(), ex.getMessage());
@@ -432,8 +468,9 @@ public class RestApiErrorHandler {
   // Generic server error handling
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Error> otherException(HttpServletRequest request, Exception ex, Locale locale) {
-    log.error("Server error: {} for {} {} with stacktrace {}",
-        ex.getMessage(), request.getMethod(), request.getRequestURL(), ex.getStackTrace());
+    // The exception as last argument logs the stack trace (the array of frames isn't readable)
+    log.error("Server error: {} for {} {}",
+        ex.getMessage(), request.getMethod(), request.getRequestURL(), ex);
 
     Error error = ErrorUtils
         .createError(ErrorCode.GENERIC_ERROR.getErrMsgKey(), ErrorCode.GENERIC_ERROR.getErrCode(),
@@ -0,0 +1,27 @@
+package com.example.ecommercedemo.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.Serial;
+import java.time.Duration;
+
+@Getter
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException {
+  @Serial
+  private static final long serialVersionUID = 1L;
+  private final String errMsgKey;
+  private final String errorCode;
+  // Sent as Retry-After header, so clients back off instead of retrying right away
+  private final Duration retryAfter;
+
+  public ServiceOverloadedException(Duration retryAfter) {
+    super(ErrorCode.SERVICE_OVERLOADED.getErrMsgKey());
+    this.errMsgKey = ErrorCode.SERVICE_OVERLOADED.getErrMsgKey();
+    this.errorCode = ErrorCode.SERVICE_OVERLOADED.getErrCode();
+    this.retryAfter = retryAfter;
+  }
+
+}
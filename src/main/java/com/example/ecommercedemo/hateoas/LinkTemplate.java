@@ -0,0 +1,140 @@
+package com.example.ecommercedemo.hateoas;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * A link to a controller method, resolved once and expanded by string substitution.
+ * <p>
+ * {@code linkTo(methodOn(...))} proxies the controller and builds the URI on every call. A template
+ * does that once, typically in a {@code static final} field of an assembler, with {@link #arg(int)}
+ * placeholders for the ids:
+ * <pre>
+ * private static final LinkTemplate SELF =
+ *     LinkTemplate.of(methodOn(CardController.class).getCardById(LinkTemplate.arg(0)));
+ * ...
+ * resource.add(SELF.link(IanaLinkRelations.SELF, resource.getId()));
+ * </pre>
+ * Expanded links are absolute and use the same base URI as {@code linkTo} (scheme, host and servlet
+ * mapping of the current request), which is computed once per request.
+ */
+public final class LinkTemplate {
+
+  private static final int MAX_ARGS = 4;
+  private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+  // literals.length == argIndexes.length + 1; the href is literals[0] arg literals[1] arg ...
+  private final String[] literals;
+  private final int[] argIndexes;
+  private final int literalLength;
+
+  private LinkTemplate(String[] literals, int[] argIndexes) {
+    this.literals = literals;
+    this.argIndexes = argIndexes;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Placeholder to pass to the {@code methodOn} proxy for the id at the given position of
+   * {@link #expand(Object...)}.
+   */
+  public static UUID arg(int index) {
+    if (index < 0 || index >= MAX_ARGS) {
+      throw new IllegalArgumentException("Link templates support up to " + MAX_ARGS + " arguments");
+    }
+    return new UUID(0L, index + 1L);
+  }
+
+  /**
+   * Resolves the template of a {@code methodOn(...)} invocation.
+   */
+  public static LinkTemplate of(Object invocationValue) {
+    // Only keep path and query; the base URI is taken from the request at expansion time
+    UriComponents uri = UriComponentsBuilder.fromUri(linkTo(invocationValue).toUri()).build();
+    String href = uri.getPath() + (uri.getQuery() == null ? "" : "?" + uri.getQuery());
+
+    List<String> literals = new ArrayList<>();
+    List<Integer> argIndexes = new ArrayList<>();
+    int start = 0;
+    while (true) {
+      int next = -1;
+      int nextArg = -1;
+      for (int i = 0; i < MAX_ARGS; i++) {
+        int pos = href.indexOf(arg(i).toString(), start);
+        if (pos >= 0 && (next < 0 || pos < next)) {
+          next = pos;
+          nextArg = i;
+        }
+      }
+      if (next < 0) {
+        literals.add(href.substring(start));
+        break;
+      }
+      literals.add(href.substring(start, next));
+      argIndexes.add(nextArg);
+      start = next + arg(nextArg).toString().length();
+    }
+    return new LinkTemplate(
+        literals.toArray(String[]::new), argIndexes.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  public Link link(LinkRelation relation, Object... args) {
+    return Link.of(expand(args), relation);
+  }
+
+  public Link link(String relation, Object... args) {
+    return link(LinkRelation.of(relation), args);
+  }
+
+  public Link selfLink(Object... args) {
+    return link(IanaLinkRelations.SELF, args);
+  }
+
+  /**
+   * Returns the absolute href with the placeholders replaced by the given values; {@code null}
+   * values expand to an empty segment, like in {@code linkTo}.
+   */
+  public String expand(Object... args) {
+    String baseUri = baseUri();
+    StringBuilder href = new StringBuilder(baseUri.length() + literalLength + argIndexes.length * 36);
+    href.append(baseUri).append(literals[0]);
+    for (int i = 0; i < argIndexes.length; i++) {
+      Object value = args[argIndexes[i]];
+      if (value != null) {
+        href.append(value);
+      }
+      href.append(literals[i + 1]);
+    }
+    return href.toString();
+  }
+
+  private static String baseUri() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return "";
+    }
+    Object cached = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (cached instanceof String baseUri) {
+      return baseUri;
+    }
+    String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+    return baseUri;
+  }
+}
@@ -3,6 +3,7 @@ package com.example.ecommercedemo.item;
 import com.example.ecommercedemo.cart.CartEntity;
 import com.example.ecommercedemo.order.OrderEntity;
 import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
@@ -21,12 +22,14 @@ import java.util.UUID;
 public class ItemEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  // Lazy: mapping an item only needs the product id, which a proxy returns without a query.
+  // Code that needs product data fetches it explicitly (join fetch or entity graph)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "PRODUCT_ID", referencedColumnName = "ID")
   private ProductEntity product;
 
@@ -38,6 +41,10 @@ public class ItemEntity {
   @ToString.Include
   private int quantity;
 
+  @Version
+  @Column(name = "VERSION")
+  private Long version;
+
   @ManyToMany(mappedBy = "items", fetch = FetchType.LAZY)
   private List<CartEntity> cart;
 
@@ -1,6 +1,5 @@
 package com.example.ecommercedemo.item;
 
-import com.example.ecommercedemo.product.ProductEntity;
 import com.example.ecommercedemo.model.Item;
 import org.springframework.stereotype.Component;
 
@@ -12,11 +11,12 @@ import java.util.Optional;
 @Component
 public class ItemMapper {
 
+  // The product is left to the caller: it has to be a reference from the persistence context, an
+  // entity with just an id and no version counts as unsaved
   public ItemEntity modelToEntity(Item item) {
     ItemEntity itemEntity = new ItemEntity();
-    itemEntity.setProduct(new ProductEntity().setId(item.getProductId()))
-        // Convert the getUnitPrice string from Item to a BigDecimal to be used for the ItemEntity
-        .setPrice(new BigDecimal(item.getUnitPrice()))
+    // Convert the getUnitPrice string from Item to a BigDecimal to be used for the ItemEntity
+    itemEntity.setPrice(new BigDecimal(item.getUnitPrice()))
         .setQuantity(item.getQuantity());
     return itemEntity;
   }
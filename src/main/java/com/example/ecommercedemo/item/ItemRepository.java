@@ -1,6 +1,7 @@
 package com.example.ecommercedemo.item;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,6 +21,34 @@ public interface ItemRepository extends JpaRepository<ItemEntity, UUID> {
       nativeQuery = true)
   List<ItemEntity> findByCustomerId(UUID customerId);
 
+  @Query("select i from CartEntity c join c.items i where c.id = :cartId")
+  List<ItemEntity> findByCartId(@Param("cartId") UUID cartId);
+
+  @Query("select i from CartEntity c join c.items i where c.id = :cartId and i.product.id = :productId")
+  Optional<ItemEntity> findByCartIdAndProductId(
+      @Param("cartId") UUID cartId, @Param("productId") UUID productId);
+
+  @Query(
+      value = """
+      select exists (
+        select 1 from ecomm.cart_item
+        join ecomm.item on item.id = cart_item.item_id
+        where cart_item.cart_id = :cartId and item.product_id = :productId)
+    """,
+      nativeQuery = true)
+  boolean existsByCartIdAndProductId(@Param("cartId") UUID cartId, @Param("productId") UUID productId);
+
+  // Links items to a cart in one statement; flushes the pending item inserts first, so they go out
+  // as one JDBC batch
+  @Modifying(flushAutomatically = true)
+  @Query(
+      value = """
+        insert into ecomm.cart_item (cart_id, item_id)
+        select :cartId, item.id from ecomm.item where item.id in (:itemIds)
+        """,
+      nativeQuery = true)
+  void insertCartItemJoins(@Param("cartId") UUID cartId, @Param("itemIds") List<UUID> itemIds);
+
   @Modifying
   @Query(
       value = "delete from ecomm.cart_item where item_id in (:ids) and cart_id = :cartId",
@@ -29,9 +58,9 @@ public interface ItemRepository extends JpaRepository<ItemEntity, UUID> {
   @Modifying
   @Query(
       value = """
-        DELETE FROM ecomm.item 
-        WHERE id IN (:ids) 
-          AND id NOT IN (SELECT item_id FROM ecomm.order_item)
+        DELETE FROM ecomm.item i
+        WHERE i.id IN (:ids)
+          AND NOT EXISTS (SELECT 1 FROM ecomm.order_item oi WHERE oi.item_id = i.id)
         """,
       nativeQuery = true)
   void deleteUnorderedItemsByIds(@Param("ids") List<UUID> ids);
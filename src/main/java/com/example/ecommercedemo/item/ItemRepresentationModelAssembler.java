@@ -3,19 +3,27 @@ package com.example.ecommercedemo.item;
 import com.example.ecommercedemo.cart.CartController;
 import com.example.ecommercedemo.product.ProductController;
 import com.example.ecommercedemo.model.Item;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class ItemRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Item, Item> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCartItemByProductId(arg(0), arg(1)));
+  private static final LinkTemplate PRODUCT =
+      LinkTemplate.of(methodOn(ProductController.class).getProductById(arg(0)));
+  private static final LinkTemplate CART =
+      LinkTemplate.of(methodOn(CartController.class).getCustomerCart(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -32,16 +40,13 @@ public class ItemRepresentationModelAssembler extends
   public Item toModel(Item resource, UUID customerId) {
 
     // --- Self Link (Item within a Cart) ---
-    resource.add(linkTo(methodOn(CartController.class).getCustomerCartItemByProductId(customerId, resource.getProductId()))
-        .withSelfRel());
+    resource.add(SELF.selfLink(customerId, resource.getProductId()));
 
     // --- Product Link ---
-    resource.add(linkTo(methodOn(ProductController.class).getProductById(resource.getProductId()))
-        .withRel("product"));
+    resource.add(PRODUCT.link("product", resource.getProductId()));
 
     // --- Parent Cart Link (optional, but useful) ---
-    resource.add(linkTo(methodOn(CartController.class).getCustomerCart(customerId))
-        .withRel("cart"));
+    resource.add(CART.link("cart", customerId));
     return resource;
   }
 
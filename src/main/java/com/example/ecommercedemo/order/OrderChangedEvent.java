@@ -0,0 +1,12 @@
+package com.example.ecommercedemo.order;
+
+import java.util.UUID;
+
+/**
+ * Published whenever an order, or a customer (which orders embed), is updated or deleted through
+ * JPA.
+ *
+ * @param customerId the customer whose orders changed
+ */
+public record OrderChangedEvent(UUID customerId) {
+}
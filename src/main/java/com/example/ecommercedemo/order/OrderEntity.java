@@ -8,9 +8,11 @@ import com.example.ecommercedemo.shipment.ShipmentEntity;
 import com.example.ecommercedemo.item.ItemEntity;
 import com.example.ecommercedemo.payment.AuthorizationEntity;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
@@ -22,6 +24,34 @@ import com.example.ecommercedemo.model.Order.StatusEnum;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(OrderEntityListener.class)
+// Fetch plans for reads that map orders (OrderMapper touches every association). Lists join the
+// to-one associations only; joining the items as well would multiply the rows per order, so they
+// are loaded in batches instead. A single order is read with its items in one statement.
+// The customer's cart is an inverse one-to-one, which Hibernate would otherwise load per customer.
+@NamedEntityGraph(
+    name = OrderEntity.SUMMARY_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "customerEntity", subgraph = "customer"),
+        @NamedAttributeNode("addressEntity"),
+        @NamedAttributeNode("cardEntity"),
+        @NamedAttributeNode("paymentEntity"),
+        @NamedAttributeNode("shipment"),
+        @NamedAttributeNode("authorizationEntity")
+    },
+    subgraphs = @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("cart")))
+@NamedEntityGraph(
+    name = OrderEntity.DETAIL_GRAPH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "customerEntity", subgraph = "customer"),
+        @NamedAttributeNode("addressEntity"),
+        @NamedAttributeNode("cardEntity"),
+        @NamedAttributeNode("paymentEntity"),
+        @NamedAttributeNode("shipment"),
+        @NamedAttributeNode("authorizationEntity"),
+        @NamedAttributeNode("items")
+    },
+    subgraphs = @NamedSubgraph(name = "customer", attributeNodes = @NamedAttributeNode("cart")))
 @Getter
 @Setter
 @ToString(onlyExplicitlyIncluded = true)
@@ -36,8 +66,12 @@ import com.example.ecommercedemo.model.Order.StatusEnum;
 })
 @Accessors(chain = true) // Enable fluent api, makes the setters return 'this'
 public class OrderEntity {
+
+  public static final String SUMMARY_GRAPH = "Order.summary";
+  public static final String DETAIL_GRAPH = "Order.detail";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -55,6 +89,10 @@ public class OrderEntity {
   @ToString.Include
   private StatusEnum status;
 
+  @Version
+  @Column(name = "VERSION")
+  private Long version;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name="CUSTOMER_ID", nullable=false)
   private CustomerEntity customerEntity;
@@ -78,7 +116,9 @@ public class OrderEntity {
   @JoinColumn(name = "CARD_ID", referencedColumnName = "ID")
   private CardEntity cardEntity;
 
+  // Items of up to 100 orders in a list are loaded with one statement
   @ManyToMany(fetch = FetchType.LAZY)
+  @BatchSize(size = 100)
   @JoinTable(
       name = "ORDER_ITEM",
       joinColumns = @JoinColumn(name = "ORDER_ID"),
@@ -0,0 +1,33 @@
+package com.example.ecommercedemo.order;
+
+import com.example.ecommercedemo.customer.CustomerEntity;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener on {@link OrderEntity} and {@link CustomerEntity}. Publishes
+ * {@link OrderChangedEvent}s, so the ETags of the customer's orders change once the transaction has
+ * committed. New orders need no event, no client has seen them yet.
+ */
+@Component
+public class OrderEntityListener {
+
+  private final ApplicationEventPublisher publisher;
+
+  public OrderEntityListener(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @PostUpdate
+  @PostRemove
+  public void onChange(Object entity) {
+    UUID customerId = entity instanceof OrderEntity order
+        ? order.getCustomerEntity().getId()
+        : ((CustomerEntity) entity).getId();
+    publisher.publishEvent(new OrderChangedEvent(customerId));
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommercedemo.order;
 
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class OrderItemEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   private UUID id;
 
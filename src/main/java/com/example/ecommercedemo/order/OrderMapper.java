@@ -65,7 +65,7 @@ public class OrderMapper {
       resource.total(entity.getTotal().toString());
     }
 
-    LOGGER.info("---> Order resource after mapping assignments -> {}", resource);
+    LOGGER.debug("---> Mapped order {}", resource.getId());
 
     return resource;
   }
@@ -1,15 +1,37 @@
 package com.example.ecommercedemo.order;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<OrderEntity, UUID>, OrderRepositoryExt {
-  @Query("select o from OrderEntity o join o.customerEntity cust where cust.id = :customerId")
+  @EntityGraph(OrderEntity.SUMMARY_GRAPH)
+  @Query("select o from OrderEntity o where o.customerEntity.id = :customerId")
   List<OrderEntity> findByCustomerId(@Param("customerId") UUID customerId);
+
+  @Override
+  @EntityGraph(OrderEntity.SUMMARY_GRAPH)
+  List<OrderEntity> findAll();
+
+  // Keyset page, see KeysetPage
+  @EntityGraph(OrderEntity.SUMMARY_GRAPH)
+  @Query("select o from OrderEntity o where o.id > :after order by o.id")
+  List<OrderEntity> findPageAfter(@Param("after") UUID after, Pageable pageable);
+
+  // The order with everything OrderMapper needs, in one statement
+  @EntityGraph(OrderEntity.DETAIL_GRAPH)
+  @Query("select o from OrderEntity o where o.id = :orderId")
+  Optional<OrderEntity> findDetailById(@Param("orderId") UUID orderId);
+
+  // The customer of an order never changes, see ResourceRevisions
+  @Query("select o.customerEntity.id from OrderEntity o where o.id = :orderId")
+  Optional<UUID> findCustomerIdById(@Param("orderId") UUID orderId);
 }
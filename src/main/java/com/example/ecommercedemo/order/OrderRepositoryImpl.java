@@ -1,116 +1,119 @@
 package com.example.ecommercedemo.order;
 
-import com.example.ecommercedemo.cart.CartEntity;
-import com.example.ecommercedemo.item.ItemEntity;
 import com.example.ecommercedemo.exception.ItemNotFoundException;
 import com.example.ecommercedemo.exception.CartNotFoundException;
 import com.example.ecommercedemo.model.OrderReq;
 import com.example.ecommercedemo.model.Order;
+import com.example.ecommercedemo.cart.CartChangedEvent;
 import com.example.ecommercedemo.cart.CartRepository;
-import com.example.ecommercedemo.item.ItemRepository;
+import com.example.ecommercedemo.persistence.UuidV7Generator;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Repository
 @Transactional
 public class OrderRepositoryImpl implements OrderRepositoryExt{
 
+  /**
+   * Places the order in a single statement:
+   * <ol>
+   *   <li>locks the customer's cart_item rows, so concurrent checkouts of the same cart serialize;
+   *   a checkout that waited finds the rows gone and orders nothing. The item rows are locked too,
+   *   so the total includes a quantity change that is being committed</li>
+   *   <li>inserts the order with the total computed from the locked items, only if there are any</li>
+   *   <li>links the locked items to the new order (set based, independent of the cart size)</li>
+   *   <li>removes exactly the locked items from the cart</li>
+   *   <li>increments the cart's version, so a cart change that read the cart before the checkout
+   *   fails on its optimistic lock instead of changing items that are now ordered</li>
+   * </ol>
+   * and returns the id of the new order, or no row when the cart was empty.
+   */
+  private static final String CHECKOUT_SQL = """
+      WITH cart_items AS (
+        SELECT ci.item_id, i.quantity, i.unit_price
+        FROM ecomm.cart c
+        JOIN ecomm.cart_item ci ON ci.cart_id = c.id
+        JOIN ecomm.item i ON i.id = ci.item_id
+        WHERE c.customer_id = :customerId
+        FOR UPDATE OF ci, i
+      ), new_order AS (
+        INSERT INTO ecomm.orders (id, address_id, card_id, customer_id, order_date, total, status)
+        SELECT :orderId, :addressId, :cardId, :customerId, :orderDate, SUM(quantity * unit_price), :status
+        FROM cart_items
+        HAVING COUNT(*) > 0
+        RETURNING id
+      ), order_items AS (
+        INSERT INTO ecomm.order_item (order_id, item_id)
+        SELECT new_order.id, cart_items.item_id FROM new_order CROSS JOIN cart_items
+      ), emptied_cart AS (
+        DELETE FROM ecomm.cart_item ci
+        USING ecomm.cart c
+        WHERE ci.cart_id = c.id AND c.customer_id = :customerId
+          AND ci.item_id IN (SELECT item_id FROM cart_items)
+          AND EXISTS (SELECT 1 FROM new_order)
+      ), new_cart_version AS (
+        UPDATE ecomm.cart SET version = version + 1
+        WHERE customer_id = :customerId AND EXISTS (SELECT 1 FROM new_order)
+      )
+      SELECT id FROM new_order
+      """;
+
   @PersistenceContext
   private final EntityManager entityManager;
 
-  private final ItemRepository itemRepository;
   private final CartRepository cartRepository;
-  private final OrderItemRepository orderItemRepository;
+
+  private final ApplicationEventPublisher publisher;
 
   private final static Logger log = LoggerFactory.getLogger(OrderRepositoryImpl.class);
 
-  public OrderRepositoryImpl(
-      EntityManager entityManager, ItemRepository itemRepository, CartRepository cartRepository, OrderItemRepository orderItemRepository) {
+  public OrderRepositoryImpl(EntityManager entityManager, CartRepository cartRepository,
+      ApplicationEventPublisher publisher) {
     this.entityManager = entityManager;
-    this.itemRepository = itemRepository;
     this.cartRepository = cartRepository;
-    this.orderItemRepository = orderItemRepository;
+    this.publisher = publisher;
   }
 
   @Override
   public OrderEntity insert(UUID customerId, OrderReq orderReq) {
 
-    log.info(String.format("---> Received insert order for customer %s", customerId));
-
-    // Items are in db (cart, cart_item and item) and saved to db as an order
-    List<ItemEntity> items = itemRepository.findByCustomerId(customerId);
-    if (items.isEmpty()) {
+    log.debug("---> Received insert order for customer {}", customerId);
+
+    @SuppressWarnings("unchecked")
+    List<UUID> orderIds = entityManager.createNativeQuery(CHECKOUT_SQL)
+        .setParameter("orderId", UuidV7Generator.next())
+        .setParameter("customerId", customerId)
+        .setParameter("addressId", orderReq.getAddressId())
+        .setParameter("cardId", orderReq.getCardId())
+        .setParameter("orderDate", Timestamp.from(Instant.now()))
+        .setParameter("status", Order.StatusEnum.CREATED.getValue())
+        .getResultList();
+
+    if (orderIds.isEmpty()) {
+      // Only on this path it matters whether the cart is missing or just empty
+      if (cartRepository.findByCustomerId(customerId).isEmpty()) {
+        throw new CartNotFoundException(
+            String.format("Cart not found for given customer (ID: %s)", customerId));
+      }
       throw new ItemNotFoundException(
           String.format("There are no items found in customer's (ID: %s) cart.", customerId));
     }
 
-    BigDecimal total = BigDecimal.ZERO;
-    for (ItemEntity i : items) {
-      total = (BigDecimal.valueOf(i.getQuantity()).multiply(i.getPrice())).add(total);
-    }
-
-    log.info(String.format("---> Total amount for order is: %s", total));
-
-    Timestamp orderDate = Timestamp.from(Instant.now());
-
-    entityManager.createNativeQuery(
-            """
-        INSERT INTO ecomm.orders (address_id, card_id, customer_id, order_date, total, status)
-         VALUES(?, ?, ?, ?, ?, ?)
-        """)
-        .setParameter(1, orderReq.getAddressId())
-        .setParameter(2, orderReq.getCardId())
-        .setParameter(3, customerId)
-        .setParameter(4, orderDate)
-        .setParameter(5, total)
-        .setParameter(6, Order.StatusEnum.CREATED.getValue())
-        .executeUpdate();
-
-    CartEntity cart =
-        cartRepository
-            .findByCustomerId(customerId)
-            .orElseThrow(
-                () ->
-                    new CartNotFoundException(
-                        String.format(
-                            "Cart not found for given customer (ID: %s)", customerId)));
-
-    // Delete items from shopping cart
-    itemRepository.deleteCartItemJoinById(
-        cart.getItems().stream().map(ItemEntity::getId).toList(), cart.getId());
-
-    OrderEntity entity =
-        (OrderEntity)
-            entityManager.createNativeQuery(
-               """
-                   SELECT o.* FROM ecomm.orders o 
-                   WHERE o.customer_id = ? AND o.order_date >= ?
-                  """, OrderEntity.class)
-                .setParameter(1, customerId)
-                .setParameter(
-                    2,
-                    OffsetDateTime.ofInstant(orderDate.toInstant(), ZoneId.of("Z"))
-                        .truncatedTo(ChronoUnit.MICROS))
-                .getSingleResult();
-
-    // Save order with cart items
-    orderItemRepository.saveAll(
-        cart.getItems().stream()
-            .map(i -> new OrderItemEntity().setOrderId(entity.getId()).setItemId(i.getId())).toList());
-
-    return entity;
+    log.debug("---> Created order {} for customer {}", orderIds.get(0), customerId);
+    // The statement emptied the cart
+    publisher.publishEvent(new CartChangedEvent(customerId));
+    return entityManager.find(OrderEntity.class, orderIds.get(0),
+        Map.of("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(OrderEntity.DETAIL_GRAPH)));
   }
 }
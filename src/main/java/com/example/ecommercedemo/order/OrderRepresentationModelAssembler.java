@@ -6,19 +6,31 @@ import com.example.ecommercedemo.customer.CustomerController;
 import com.example.ecommercedemo.model.Item;
 import com.example.ecommercedemo.model.Order;
 import com.example.ecommercedemo.product.ProductController;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Objects;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class OrderRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Order, Order> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(OrderController.class).getByOrderId(arg(0)));
+  private static final LinkTemplate CUSTOMER =
+      LinkTemplate.of(methodOn(CustomerController.class).getCustomerById(arg(0)));
+  private static final LinkTemplate ADDRESS =
+      LinkTemplate.of(methodOn(AddressController.class).getAddressById(arg(0)));
+  private static final LinkTemplate CARD =
+      LinkTemplate.of(methodOn(CardController.class).getCardById(arg(0)));
+  private static final LinkTemplate PRODUCT =
+      LinkTemplate.of(methodOn(ProductController.class).getProductById(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -36,29 +48,21 @@ public class OrderRepresentationModelAssembler extends
   public Order toModel(Order resource) {
 
     // 1. Add self link to the Order
-    resource.add(linkTo(methodOn(OrderController.class)
-        .getByOrderId(resource.getId()))
-        .withSelfRel());
+    resource.add(SELF.selfLink(resource.getId()));
 
     // 2. Add self link to the nested Customer object
     if (Objects.nonNull(resource.getCustomer())) {
-      resource.getCustomer().add(linkTo(methodOn(CustomerController.class)
-          .getCustomerById(resource.getCustomer().getId()))
-          .withSelfRel());
+      resource.getCustomer().add(CUSTOMER.selfLink(resource.getCustomer().getId()));
     }
 
     // 3. Add self link to the nested Address object
     if (Objects.nonNull(resource.getAddress())) {
-      resource.getAddress().add(linkTo(methodOn(AddressController.class)
-          .getAddressById(resource.getAddress().getId()))
-          .withSelfRel());
+      resource.getAddress().add(ADDRESS.selfLink(resource.getAddress().getId()));
     }
 
     // 4. Add self link to the nested Card object
     if (Objects.nonNull(resource.getCard())) {
-      resource.getCard().add(linkTo(methodOn(CardController.class)
-          .getCardById(resource.getCard().getId()))
-          .withSelfRel());
+      resource.getCard().add(CARD.selfLink(resource.getCard().getId()));
     }
 
     // TO DO: Payments and Shipments
@@ -80,9 +84,7 @@ public class OrderRepresentationModelAssembler extends
     if (Objects.nonNull(resource.getItems())) {
       for (Item item : resource.getItems()) {
         // Add a link to the related product resource
-        item.add(linkTo(methodOn(ProductController.class)
-            .getProductById(item.getProductId()))
-            .withRel("product"));
+        item.add(PRODUCT.link("product", item.getProductId()));
       }
     }
 
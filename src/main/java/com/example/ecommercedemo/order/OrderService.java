@@ -4,6 +4,7 @@ import com.example.ecommercedemo.model.OrderReq;
 import com.example.ecommercedemo.model.Order;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +13,7 @@ import java.util.UUID;
 public interface OrderService {
   Order addOrder(@NotNull(message = "Customer UUID cannot be null.") UUID customerId, @Valid OrderReq orderReq);
   List<Order> getAllOrders();
+  Slice<Order> getOrdersAfter(@NotNull(message = "Cursor UUID cannot be null.") UUID after, int limit);
   Optional<Order> getOrderById(@NotNull(message = "Order UUID cannot be null.") UUID orderId);
   List<Order> getOrdersByCustomerId(@NotNull(message = "Customer UUID cannot be null.") UUID customerId);
 }
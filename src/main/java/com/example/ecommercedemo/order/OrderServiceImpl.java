@@ -1,8 +1,13 @@
 package com.example.ecommercedemo.order;
 
+import com.example.ecommercedemo.cart.WriteBehindCartService;
 import com.example.ecommercedemo.model.Order;
 import com.example.ecommercedemo.model.OrderReq;
+import com.example.ecommercedemo.persistence.KeysetPage;
+import com.example.ecommercedemo.persistence.OptimisticLockRetry;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -19,13 +24,21 @@ public class OrderServiceImpl implements OrderService {
 
   private final OrderMapper orderMapper;
 
-  public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper) {
+  // Only present when carts are kept in a cart store (app.cart.store.type=memory)
+  private final ObjectProvider<WriteBehindCartService> writeBehindCartService;
+
+  private final OptimisticLockRetry retry;
+
+  public OrderServiceImpl(
+      OrderRepository orderRepository, OrderMapper orderMapper,
+      ObjectProvider<WriteBehindCartService> writeBehindCartService, OptimisticLockRetry retry) {
     this.orderRepository = orderRepository;
     this.orderMapper = orderMapper;
+    this.writeBehindCartService = writeBehindCartService;
+    this.retry = retry;
   }
 
   @Override
-  @Transactional
   public Order addOrder(UUID customerId, OrderReq orderReq) {
 
     if (orderReq == null) {
@@ -41,9 +54,15 @@ public class OrderServiceImpl implements OrderService {
       throw new IllegalArgumentException("Card ID cannot be null.");
     }
 
-    // 1. Add HATEOAS links
-    OrderEntity createdOrderEntity = orderRepository.insert(customerId, orderReq);
-    return orderMapper.entityToModel(createdOrderEntity);
+    // Checkout increments the cart's version, so it conflicts with a change of the cart in flight
+    return retry.execute("order.checkout", () -> {
+      // Checkout reads the cart from the database; persist pending cart changes first
+      writeBehindCartService.ifAvailable(carts -> carts.flushForCheckout(customerId));
+
+      // 1. Add HATEOAS links
+      OrderEntity createdOrderEntity = orderRepository.insert(customerId, orderReq);
+      return orderMapper.entityToModel(createdOrderEntity);
+    });
     // Ideally, here it will trigger the rest of the process
     // 2. Initiate the payment
     // 3. Once the payment is authorized, change the status to paid
@@ -56,10 +75,17 @@ public class OrderServiceImpl implements OrderService {
     return orderMapper.entityToModelList(orderRepository.findAll());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Slice<Order> getOrdersAfter(UUID after, int limit) {
+    return KeysetPage.of(orderRepository.findPageAfter(after, KeysetPage.request(limit)), limit)
+        .map(orderMapper::entityToModel);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Optional<Order> getOrderById(UUID orderId) {
-    return orderRepository.findById(orderId).map(orderMapper::entityToModel);
+    return orderRepository.findDetailById(orderId).map(orderMapper::entityToModel);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package com.example.ecommercedemo.payment;
 
 import com.example.ecommercedemo.order.OrderEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
@@ -18,7 +19,7 @@ import java.util.UUID;
 public class AuthorizationEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -1,7 +1,6 @@
 package com.example.ecommercedemo.payment;
 
 import com.example.ecommercedemo.model.Authorization;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -16,9 +15,10 @@ public class AuthorizationMapper {
 
     Authorization resource = new Authorization();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setOrderId(entity.getId());
+    resource.orderId(entity.getId())
+        .authorized(entity.isAuthorized())
+        .message(entity.getMessage())
+        .error(entity.getError());
     return resource;
   }
 
@@ -1,18 +1,22 @@
 package com.example.ecommercedemo.payment;
 
 import com.example.ecommercedemo.model.Authorization;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class AuthorizationRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Authorization, Authorization> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(PaymentController.class).getOrdersPaymentAuthorization(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -25,7 +29,7 @@ public class AuthorizationRepresentationModelAssembler extends
   public Authorization toModel(Authorization resource) {
 
     // Add HATEOAS links
-    resource.add(linkTo(methodOn(PaymentController.class).getOrdersPaymentAuthorization(resource.getOrderId())).withSelfRel());
+    resource.add(SELF.selfLink(resource.getOrderId()));
 
     return resource;
   }
@@ -30,13 +30,13 @@ public class PaymentController implements PaymentApi {
 
   @Override
   public ResponseEntity<Authorization> authorize(UUID orderId, PaymentReq paymentReq) {
-    log.info("Authorize request for Payment Amount: {}", paymentReq.getAmount());
+    log.debug("Authorize request for Payment Amount: {}", paymentReq.getAmount());
     return null;
   }
 
   @Override
   public ResponseEntity<Authorization> getOrdersPaymentAuthorization(UUID id) {
-    log.info("Get orders for authorization id: {}", id);
+    log.debug("Get orders for authorization id: {}", id);
     return null;
   }
 }
@@ -1,7 +1,6 @@
 package com.example.ecommercedemo.payment;
 
 import com.example.ecommercedemo.model.Payment;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -16,9 +15,9 @@ public class PaymentMapper {
 
     Payment resource = new Payment();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setId(entity.getId());
+    resource.id(entity.getId())
+        .authorized(entity.isAuthorized())
+        .message(entity.getMessage());
     return resource;
   }
 
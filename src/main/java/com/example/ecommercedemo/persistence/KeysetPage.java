@@ -0,0 +1,34 @@
+package com.example.ecommercedemo.persistence;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (cursor) paging over id ordered tables: a page is {@code where id > :after order by id},
+ * so every page is an index range scan, however deep, where an offset would read and skip all
+ * preceding rows. Ids are time ordered (UUIDv7), so pages follow insertion order.
+ * <p>
+ * One row more than the page size is read to tell whether there is a next page.
+ */
+public final class KeysetPage {
+
+  // Postgres orders uuids bytewise, nothing sorts before the nil UUID
+  public static final UUID FIRST = new UUID(0, 0);
+
+  private KeysetPage() {
+  }
+
+  public static Pageable request(int limit) {
+    return PageRequest.ofSize(limit + 1);
+  }
+
+  public static <T> Slice<T> of(List<T> rows, int limit) {
+    boolean hasNext = rows.size() > limit;
+    return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.ofSize(limit), hasNext);
+  }
+}
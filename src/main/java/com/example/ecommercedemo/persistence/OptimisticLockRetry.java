@@ -0,0 +1,97 @@
+package com.example.ecommercedemo.persistence;
+
+import com.example.ecommercedemo.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in a transaction of its own and repeats it when it fails on an optimistic lock, i.e.
+ * a row it read was changed by another transaction before it committed. Each attempt reads again,
+ * so it applies to the current state. After {@code app.persistence.optimistic-lock.max-attempts}
+ * conflicts the caller gets a {@link ConcurrentUpdateException} (409).
+ * <p>
+ * Within an existing transaction the write runs once: a conflict rolls back the whole outer
+ * transaction, only its owner can repeat it.
+ * <p>
+ * Conflicts, and writes that gave up, are counted per operation in
+ * {@code persistence.optimistic-lock.conflicts} and {@code persistence.optimistic-lock.exhausted}.
+ */
+@Component
+public class OptimisticLockRetry {
+
+  private static final Logger log = LoggerFactory.getLogger(OptimisticLockRetry.class);
+
+  private static final String METRIC_PREFIX = "persistence.optimistic-lock";
+
+  private final TransactionOperations transactionOperations;
+  private final int maxAttempts;
+  private final Duration backoff;
+  private final MeterRegistry meterRegistry;
+
+  public OptimisticLockRetry(
+      TransactionOperations transactionOperations,
+      @Value("${app.persistence.optimistic-lock.max-attempts:3}") int maxAttempts,
+      @Value("${app.persistence.optimistic-lock.backoff:PT0.02S}") Duration backoff,
+      MeterRegistry meterRegistry) {
+    this.transactionOperations = transactionOperations;
+    this.maxAttempts = maxAttempts;
+    this.backoff = backoff;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> T execute(String operation, Supplier<T> write) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return write.get();
+    }
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionOperations.execute(status -> write.get());
+      } catch (OptimisticLockingFailureException ex) {
+        counter("conflicts", "Writes that failed on an optimistic lock", operation).increment();
+        if (attempt >= maxAttempts) {
+          counter("exhausted", "Writes that gave up after conflicting on every attempt", operation).increment();
+          throw new ConcurrentUpdateException(
+              String.format("%s conflicted with concurrent writes %d times", operation, attempt), ex);
+        }
+        log.debug("{} conflicted with a concurrent write, attempt {} of {}", operation, attempt, maxAttempts);
+        pause(attempt, ex);
+      }
+    }
+  }
+
+  public void run(String operation, Runnable write) {
+    execute(operation, () -> {
+      write.run();
+      return null;
+    });
+  }
+
+  // Random, so the writes that collided don't collide again, and longer with every attempt. No
+  // transaction (or connection) is held meanwhile.
+  private void pause(int attempt, OptimisticLockingFailureException conflict) {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(backoff.toMillis() * attempt + 1));
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ConcurrentUpdateException("Interrupted before retrying", conflict);
+    }
+  }
+
+  private Counter counter(String name, String description, String operation) {
+    return Counter.builder(METRIC_PREFIX + "." + name)
+        .description(description)
+        .tag("operation", operation)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.ecommercedemo.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Assigns a time-ordered UUID (version 7) to the annotated id when the entity is persisted.
+ * <p>
+ * The id is known before the insert, so Hibernate can batch inserts, which it can't do for
+ * {@code GenerationType.IDENTITY}. Because consecutive ids are increasing, new rows land at the
+ * right-hand side of the primary key index instead of at random pages.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,49 @@
+package com.example.ecommercedemo.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Generates UUIDs in the version 7 layout of RFC 9562: 48 bits of Unix epoch milliseconds, 12 bits
+ * of sub-millisecond sequence, and 62 random bits.
+ * <p>
+ * The timestamp and sequence are taken from a single counter, so ids generated by this JVM are
+ * strictly increasing, also within the same millisecond and when the clock steps back.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+  private static final int SEQUENCE_BITS = 12;
+
+  // unix millis << SEQUENCE_BITS | sequence
+  private static final AtomicLong LAST = new AtomicLong();
+
+  @Override
+  public Object generate(
+      SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+    return next();
+  }
+
+  @Override
+  public EnumSet<EventType> getEventTypes() {
+    return INSERT_ONLY;
+  }
+
+  public static UUID next() {
+    long now = System.currentTimeMillis() << SEQUENCE_BITS;
+    long tick = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+    // 48 bits millis | version 7 | 12 bits sequence
+    long msb = (tick >>> SEQUENCE_BITS) << 16 | 0x7000L | (tick & 0xFFFL);
+    // variant 10 | 62 random bits
+    long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(msb, lsb);
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serves catalog reads from the {@link ProductCatalogCache} and only falls back to
+ * {@link ProductServiceImpl} (and thereby to the database) on a miss.
+ */
+@Service
+@Primary
+@Validated
+public class CachingProductService implements ProductService {
+
+  // The unpaged catalog is cached next to the pages under a key no request can produce
+  private static final ProductQuery ALL_PRODUCTS = new ProductQuery(null, null, 0, 0);
+
+  private final ProductServiceImpl delegate;
+  private final ProductCatalogCache cache;
+
+  public CachingProductService(ProductServiceImpl delegate, ProductCatalogCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public List<Product> getAllProducts() {
+    return cache.getQuery(ALL_PRODUCTS, key -> new SliceImpl<>(delegate.getAllProducts())).getContent();
+  }
+
+  @Override
+  public Slice<Product> queryProducts(String tag, String name, int page, int size) {
+    return cache.getQuery(ProductQuery.of(tag, name, page, size),
+        query -> delegate.queryProducts(query.tag(), query.name(), query.page(), query.size()));
+  }
+
+  @Override
+  public long estimateProductCount() {
+    return cache.getEstimatedCount(delegate::estimateProductCount);
+  }
+
+  @Override
+  public Optional<Product> getProductById(UUID id) {
+    return cache.getProduct(id, delegate::getProductById);
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.ecommercedemo.product;
+
+/**
+ * Response body whose JSON representation has already been rendered. Written as is by
+ * {@link PreRenderedJsonHttpMessageConverter}; other media types (XML) fall back to the regular
+ * converters, which see the object as a plain model.
+ */
+public interface PreRenderedJson {
+  byte[] json();
+}
@@ -0,0 +1,45 @@
+package com.example.ecommercedemo.product;
+
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Copies the bytes of a {@link PreRenderedJson} body to the response without any serialization.
+ */
+public class PreRenderedJsonHttpMessageConverter extends AbstractHttpMessageConverter<PreRenderedJson> {
+
+  public PreRenderedJsonHttpMessageConverter() {
+    super(MediaType.APPLICATION_JSON, MediaTypes.HAL_JSON);
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PreRenderedJson.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected PreRenderedJson readInternal(Class<? extends PreRenderedJson> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Pre-rendered JSON is write-only", inputMessage);
+  }
+
+  @Override
+  protected Long getContentLength(PreRenderedJson body, MediaType contentType) {
+    return (long) body.json().length;
+  }
+
+  @Override
+  protected void writeInternal(PreRenderedJson body, HttpOutputMessage outputMessage) throws IOException {
+    outputMessage.getBody().write(body.json());
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache for catalog reads. Entries expire after a fixed time to live, which also
+ * bounds staleness for changes made outside the application (e.g. SQL scripts); changes made via
+ * JPA evict the affected entries right after commit.
+ * <p>
+ * Cached {@link Product} instances are shared between requests and must be treated as read-only.
+ */
+@Component
+public class ProductCatalogCache {
+
+  private final static Logger log = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+  private static final String ESTIMATED_COUNT_KEY = "product";
+
+  private final Cache<UUID, Optional<Product>> products;
+  private final Cache<ProductQuery, Slice<Product>> queries;
+  private final Cache<String, Long> counts;
+
+  // Bumped after every invalidation; lets derived caches detect that their content is outdated. A
+  // reader that sees the new revision can only load the new models.
+  private final AtomicLong revision = new AtomicLong();
+
+  public ProductCatalogCache(
+      @Value("${app.catalog.cache.maximum-size:10000}") long maximumSize,
+      @Value("${app.catalog.cache.time-to-live:PT10M}") Duration timeToLive,
+      MeterRegistry meterRegistry) {
+    this.products = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "catalog.products");
+    this.queries = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "catalog.queries");
+    this.counts = CaffeineCacheMetrics.monitor(meterRegistry, newCache(1, timeToLive), "catalog.counts");
+  }
+
+  public Optional<Product> getProduct(UUID id, Function<UUID, Optional<Product>> loader) {
+    return products.get(id, loader);
+  }
+
+  public Slice<Product> getQuery(ProductQuery query, Function<ProductQuery, Slice<Product>> loader) {
+    return queries.get(query, loader);
+  }
+
+  public long getEstimatedCount(LongSupplier loader) {
+    return counts.get(ESTIMATED_COUNT_KEY, key -> loader.getAsLong());
+  }
+
+  public long revision() {
+    return revision.get();
+  }
+
+  @Order(0)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(ProductCatalogChangedEvent event) {
+    if (event.productId() == null) {
+      invalidateAll();
+      return;
+    }
+    log.debug("Evicting product {} from the catalog cache", event.productId());
+    products.invalidate(event.productId());
+    // A single product can appear on any page and changes the row count
+    queries.invalidateAll();
+    counts.invalidateAll();
+    revision.incrementAndGet();
+  }
+
+  public void invalidateAll() {
+    log.debug("Evicting the complete catalog cache");
+    products.invalidateAll();
+    queries.invalidateAll();
+    counts.invalidateAll();
+    revision.incrementAndGet();
+  }
+
+  private static <K, V> Cache<K, V> newCache(long maximumSize, Duration timeToLive) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build();
+  }
+}
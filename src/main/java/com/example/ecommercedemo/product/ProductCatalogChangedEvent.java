@@ -0,0 +1,12 @@
+package com.example.ecommercedemo.product;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a product or tag row is written through JPA.
+ *
+ * @param productId the changed product, or {@code null} when the change may affect any product
+ *                  (e.g. a renamed tag)
+ */
+public record ProductCatalogChangedEvent(UUID productId) {
+}
@@ -0,0 +1,32 @@
+package com.example.ecommercedemo.product;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener on {@link ProductEntity} and {@link TagEntity}. Hibernate obtains it from the
+ * Spring context, so it can publish {@link ProductCatalogChangedEvent}s which the
+ * {@link ProductCatalogCache} applies once the transaction has committed.
+ */
+@Component
+public class ProductCatalogEntityListener {
+
+  private final ApplicationEventPublisher publisher;
+
+  public ProductCatalogEntityListener(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onChange(Object entity) {
+    UUID productId = entity instanceof ProductEntity product ? product.getId() : null;
+    publisher.publishEvent(new ProductCatalogChangedEvent(productId));
+  }
+}
@@ -2,35 +2,75 @@ package com.example.ecommercedemo.product;
 
 import com.example.ecommercedemo.api.ProductApi;
 import com.example.ecommercedemo.model.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.UUID;
 
-import static org.springframework.http.ResponseEntity.ok;
-
 @RestController
 @Validated
 @RequestMapping("/api/v1")
 public class ProductController implements ProductApi {
 
+  static final String TOTAL_COUNT_ESTIMATE_HEADER = "X-Total-Count-Estimate";
+
   private final ProductService productService;
+  private final ObjectProvider<ProductSnapshotStore> snapshotStore;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService, ObjectProvider<ProductSnapshotStore> snapshotStore) {
     this.productService = productService;
+    this.snapshotStore = snapshotStore;
   }
 
   @Override
   public ResponseEntity<List<Product>> queryProducts(String tag, String name, Integer page, Integer size) {
-    return ok(productService.getAllProducts());
+    int pageNumber = page == null ? 1 : page;
+    int pageSize = size == null ? 10 : size;
+    ProductSnapshotStore snapshots = snapshotStore.getIfAvailable();
+    Slice<Product> slice;
+    List<Product> body;
+    if (snapshots != null) {
+      RenderedProductList rendered = snapshots.queryProducts(tag, name, pageNumber, pageSize);
+      slice = rendered.slice();
+      body = rendered;
+    } else {
+      slice = productService.queryProducts(tag, name, pageNumber, pageSize);
+      body = slice.getContent();
+    }
+
+    HttpHeaders headers = new HttpHeaders();
+    if (slice.hasNext()) {
+      String next = ServletUriComponentsBuilder.fromCurrentRequest()
+          .replaceQueryParam("page", slice.getNumber() + 2)
+          .replaceQueryParam("size", slice.getSize())
+          .toUriString();
+      headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+    // An exact count of a filtered catalog costs as much as the query itself, so only the
+    // unfiltered listing gets a total, taken from the planner statistics.
+    if (tag == null && name == null) {
+      long estimate = productService.estimateProductCount();
+      if (estimate >= 0) {
+        headers.add(TOTAL_COUNT_ESTIMATE_HEADER, Long.toString(estimate));
+      }
+    }
+    return ResponseEntity.ok().headers(headers).body(body);
   }
 
   @Override
   public ResponseEntity<Product> getProductById(UUID id) {
+    ProductSnapshotStore snapshots = snapshotStore.getIfAvailable();
+    if (snapshots != null) {
+      return snapshots.getProduct(id).<ResponseEntity<Product>>map(ResponseEntity::ok)
+          .orElse(ResponseEntity.notFound().build());
+    }
     return productService.getProductById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
   }
 }
-
@@ -1,6 +1,7 @@
 package com.example.ecommercedemo.product;
 
 import com.example.ecommercedemo.item.ItemEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ProductCatalogEntityListener.class)
 @Table(name = "product")
 @Getter
 @Setter
@@ -23,7 +25,7 @@ import java.util.UUID;
 public class ProductEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -51,6 +53,10 @@ public class ProductEntity {
   @ToString.Include
   private String imageUrl;
 
+  @Version
+  @Column(name = "VERSION")
+  private Long version;
+
   @ManyToMany
   @JoinTable(
       name = "PRODUCT_TAG",
@@ -2,9 +2,9 @@ package com.example.ecommercedemo.product;
 
 import com.example.ecommercedemo.model.Product;
 import com.example.ecommercedemo.model.Tag;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -17,17 +17,30 @@ public class ProductMapper {
 
     Product resource = new Product();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setId(entity.getId());
-    resource.setPrice(entity.getPrice().toString());
-    resource.setTag(
-        entity.getTags().stream().map(t -> new Tag().id(t.getId()).name(t.getName())).toList());
+    resource.id(entity.getId())
+        .name(entity.getName())
+        .description(entity.getDescription())
+        .imageUrl(entity.getImageUrl())
+        .count(entity.getCount())
+        .price(entity.getPrice().toString())
+        .tag(tagsToModel(entity.getTags()));
     return resource;
   }
 
   // Transform from entity list to model list
   public List<Product> entityToModelList(List<ProductEntity> entities) {
-    return entities.stream().map(this::entityToModel).toList();
+    List<Product> resources = new ArrayList<>(entities.size());
+    for (ProductEntity entity : entities) {
+      resources.add(entityToModel(entity));
+    }
+    return resources;
+  }
+
+  private static List<Tag> tagsToModel(List<TagEntity> tags) {
+    List<Tag> resources = new ArrayList<>(tags.size());
+    for (TagEntity tag : tags) {
+      resources.add(new Tag().id(tag.getId()).name(tag.getName()));
+    }
+    return resources;
   }
 }
@@ -0,0 +1,42 @@
+package com.example.ecommercedemo.product;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Locale;
+
+/**
+ * Normalized catalog query. Blank filters become {@code null}, the name prefix is lower-cased
+ * (matching is case-insensitive anyway) and page/size are clamped, so equivalent requests share
+ * one cache entry.
+ *
+ * @param tag  exact tag name or {@code null}
+ * @param name lower-case name prefix or {@code null}
+ * @param page 1-based page number
+ * @param size page size, 1..{@value #MAX_PAGE_SIZE}
+ */
+public record ProductQuery(String tag, String name, int page, int size) {
+
+  public static final int MAX_PAGE_SIZE = 100;
+
+  public static ProductQuery of(String tag, String name, int page, int size) {
+    String namePrefix = blankToNull(name);
+    return new ProductQuery(
+        blankToNull(tag),
+        namePrefix == null ? null : namePrefix.toLowerCase(Locale.ROOT),
+        Math.max(page, 1),
+        Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+  }
+
+  public Pageable pageable() {
+    return PageRequest.of(page - 1, size);
+  }
+
+  public boolean isFiltered() {
+    return tag != null || name != null;
+  }
+
+  private static String blankToNull(String value) {
+    return (value == null || value.isBlank()) ? null : value.trim();
+  }
+}
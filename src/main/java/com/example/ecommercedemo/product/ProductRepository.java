@@ -4,15 +4,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
+public interface ProductRepository extends JpaRepository<ProductEntity, UUID>, ProductRepositoryExt {
 
   @Query("select distinct p from ProductEntity p left join fetch p.tags")
   List<ProductEntity> findAllWithTags();
 
   @Query("select p from ProductEntity p left join fetch p.tags where p.id = :id")
   Optional<ProductEntity> findByIdWithTags(@Param("id") UUID id);
+
+  @Query("select distinct p from ProductEntity p left join fetch p.tags where p.id in :ids")
+  List<ProductEntity> findAllWithTagsByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,24 @@
+package com.example.ecommercedemo.product;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductRepositoryExt {
+
+  /**
+   * Returns the ids of one page of products ordered by name and id. Only the predicates that are
+   * actually requested end up in the SQL, so each filter combination gets its own simple plan.
+   *
+   * @param tag    exact tag name, or {@code null} for any tag
+   * @param name   case-insensitive name prefix, or {@code null} for any name
+   * @param offset number of rows to skip
+   * @param limit  maximum number of ids to return
+   */
+  List<UUID> findIdPage(String tag, String name, int offset, int limit);
+
+  /**
+   * Returns the planner's row estimate for the product table (maintained by ANALYZE/autovacuum),
+   * or -1 if the table has not been analyzed yet. Reading it never touches the table itself.
+   */
+  long estimateCount();
+}
@@ -0,0 +1,57 @@
+package com.example.ecommercedemo.product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+@Repository
+@Transactional(readOnly = true)
+public class ProductRepositoryImpl implements ProductRepositoryExt {
+
+  @PersistenceContext
+  private final EntityManager entityManager;
+
+  public ProductRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<UUID> findIdPage(String tag, String name, int offset, int limit) {
+    StringBuilder jpql = new StringBuilder("select p.id from ProductEntity p where 1 = 1");
+    if (tag != null) {
+      jpql.append(" and p.id in (select pt.id from ProductEntity pt join pt.tags t where t.name = :tag)");
+    }
+    if (name != null) {
+      jpql.append(" and lower(p.name) like :namePrefix escape '\\'");
+    }
+    // (name, id) is covered by idx_product_name_id, so the page is read in index order
+    jpql.append(" order by p.name, p.id");
+
+    TypedQuery<UUID> query = entityManager.createQuery(jpql.toString(), UUID.class);
+    if (tag != null) {
+      query.setParameter("tag", tag);
+    }
+    if (name != null) {
+      query.setParameter("namePrefix", escapeLike(name.toLowerCase(Locale.ROOT)) + "%");
+    }
+    return query.setFirstResult(offset).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public long estimateCount() {
+    Number estimate = (Number) entityManager.createNativeQuery(
+            "SELECT reltuples FROM pg_catalog.pg_class WHERE oid = 'ecomm.product'::regclass")
+        .getSingleResult();
+    return estimate.longValue();
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
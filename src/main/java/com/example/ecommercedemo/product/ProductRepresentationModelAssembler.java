@@ -1,18 +1,24 @@
 package com.example.ecommercedemo.product;
 
 import com.example.ecommercedemo.model.Product;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class ProductRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Product, Product> {
 
+  private static final LinkTemplate SELF =
+      LinkTemplate.of(methodOn(ProductController.class).getProductById(arg(0)));
+  private static final LinkTemplate PRODUCTS =
+      LinkTemplate.of(methodOn(ProductController.class).queryProducts(null, null, 1, 10));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -30,9 +36,9 @@ public class ProductRepresentationModelAssembler extends
   public Product toModel(Product resource) {
 
     // Add HATEOAS links
-    resource.add(linkTo(methodOn(ProductController.class).getProductById(resource.getId())).withSelfRel());
+    resource.add(SELF.selfLink(resource.getId()));
 
-    resource.add(linkTo(methodOn(ProductController.class).queryProducts(null, null, 1, 10)).withRel("products"));
+    resource.add(PRODUCTS.link("products"));
 
     return resource;
   }
@@ -2,6 +2,7 @@ package com.example.ecommercedemo.product;
 
 import com.example.ecommercedemo.model.Product;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
@@ -11,5 +12,7 @@ import java.util.UUID;
 @Validated
 public interface ProductService {
   List<Product> getAllProducts();         // new: returns assembled API models
+  Slice<Product> queryProducts(String tag, String name, int page, int size);
+  long estimateProductCount();
   Optional<Product> getProductById(@NotNull(message = "Product UUID cannot be null.") UUID id);
-}
\ No newline at end of file
+}
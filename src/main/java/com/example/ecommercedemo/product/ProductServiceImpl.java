@@ -3,11 +3,17 @@ package com.example.ecommercedemo.product;
 import com.example.ecommercedemo.model.Product;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,12 +36,51 @@ public class ProductServiceImpl implements ProductService {
   @Override
   public List<Product> getAllProducts() {
     List<ProductEntity> entities = productRepository.findAllWithTags();
-    LOG.info("Products: ");
     List<Product> products = productMapper.entityToModelList(entities);
-    LOG.info(products.toString());
+    LOG.debug("Mapped {} products", products.size());
     return products;
   }
 
+  /**
+   * Returns one page of the catalog. Paging runs in two steps: first the ids of the requested page
+   * are selected with the filters applied in SQL, then only those products are loaded together
+   * with their tags. Fetch-joining the tags in the paged query itself would force Hibernate to
+   * page in memory. One extra id is requested to find out whether a next page exists, so no count
+   * query is needed.
+   *
+   * @see ProductQuery#of(String, String, int, int)
+   */
+  @Transactional(readOnly = true)
+  @Override
+  public Slice<Product> queryProducts(String tag, String name, int page, int size) {
+    ProductQuery query = ProductQuery.of(tag, name, page, size);
+    Pageable pageable = query.pageable();
+    List<UUID> ids = productRepository.findIdPage(
+        query.tag(), query.name(), (int) pageable.getOffset(), pageable.getPageSize() + 1);
+
+    boolean hasNext = ids.size() > pageable.getPageSize();
+    List<UUID> pageIds = hasNext ? ids.subList(0, pageable.getPageSize()) : ids;
+    if (pageIds.isEmpty()) {
+      return new SliceImpl<>(List.of(), pageable, false);
+    }
+
+    // 'in' does not keep the order of the id page, so restore it
+    Map<UUID, Integer> position = new HashMap<>();
+    for (int i = 0; i < pageIds.size(); i++) {
+      position.put(pageIds.get(i), i);
+    }
+    List<ProductEntity> entities = productRepository.findAllWithTagsByIdIn(pageIds).stream()
+        .sorted(Comparator.comparing(p -> position.get(p.getId())))
+        .toList();
+    return new SliceImpl<>(productMapper.entityToModelList(entities), pageable, hasNext);
+  }
+
+  @Transactional(readOnly = true)
+  @Override
+  public long estimateProductCount() {
+    return productRepository.estimateCount();
+  }
+
   @Transactional(readOnly = true)
   @Override
   public Optional<Product> getProductById(UUID id) {
@@ -0,0 +1,17 @@
+package com.example.ecommercedemo.product;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class ProductSnapshotConfig implements WebMvcConfigurer {
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // Must precede the Jackson converters, which would otherwise serialize the model fields
+    converters.add(0, new PreRenderedJsonHttpMessageConverter());
+  }
+}
@@ -0,0 +1,216 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Catalog snapshot mode ({@code app.catalog.snapshot.enabled=true}): keeps the rendered JSON of
+ * every product and of every requested page, so catalog reads just copy bytes to the response.
+ * <p>
+ * Products are rendered as {@link ProductController} returns them, with the message converters
+ * Spring MVC would pick for the response type, so the bytes match a regular response. Page arrays
+ * are concatenated from the per-product fragments; when a product changes only its fragments are dropped, and the pages are
+ * reassembled from the fragments that are still valid on their next read.
+ * <p>
+ * Like the cached models, the returned {@link RenderedProduct} instances are shared between
+ * requests and must be treated as read-only.
+ */
+@Component
+@ConditionalOnProperty(name = "app.catalog.snapshot.enabled", havingValue = "true")
+public class ProductSnapshotStore {
+
+  private final static Logger log = LoggerFactory.getLogger(ProductSnapshotStore.class);
+
+  private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+  private final ProductService productService;
+  private final ProductCatalogCache catalogCache;
+  private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+  private final Cache<UUID, RenderedProduct> products;
+  // Products as elements of a page array, rendered with the converter for lists
+  private final Cache<UUID, byte[]> fragments;
+  private final Cache<ProductQuery, RenderedProductList> pages;
+
+  private volatile HttpMessageConverter<Object> productConverter;
+  private volatile HttpMessageConverter<Object> listConverter;
+
+  public ProductSnapshotStore(
+      ProductService productService,
+      ProductCatalogCache catalogCache,
+      ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+      @Value("${app.catalog.cache.maximum-size:10000}") long maximumSize,
+      @Value("${app.catalog.cache.time-to-live:PT10M}") Duration timeToLive,
+      MeterRegistry meterRegistry) {
+    this.productService = productService;
+    this.catalogCache = catalogCache;
+    this.handlerAdapter = handlerAdapter;
+    this.products = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build(),
+        "catalog.snapshot.products");
+    this.fragments = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build(),
+        "catalog.snapshot.fragments");
+    this.pages = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build(),
+        "catalog.snapshot.pages");
+  }
+
+  public Optional<RenderedProduct> getProduct(UUID id) {
+    RenderedProduct cached = products.getIfPresent(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    long revision = catalogCache.revision();
+    Optional<RenderedProduct> rendered = productService.getProductById(id).map(product -> {
+      log.debug("Rendering snapshot of product {}", id);
+      return new RenderedProduct(product, write(productConverter(), product));
+    });
+    rendered.ifPresent(product -> putIfCurrent(revision, () -> products.put(id, product)));
+    return rendered;
+  }
+
+  public RenderedProductList queryProducts(String tag, String name, int page, int size) {
+    long revision = catalogCache.revision();
+    ProductQuery query = ProductQuery.of(tag, name, page, size);
+    RenderedProductList cached = pages.getIfPresent(query);
+    if (cached != null) {
+      return cached;
+    }
+
+    Slice<Product> slice = productService.queryProducts(query.tag(), query.name(), query.page(), query.size());
+    RenderedProductList rendered = new RenderedProductList(slice, renderArray(slice.getContent(), revision));
+    putIfCurrent(revision, () -> pages.put(query, rendered));
+    return rendered;
+  }
+
+  @Order(1) // after ProductCatalogCache, which supplies the models the snapshots are rendered from
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCatalogChanged(ProductCatalogChangedEvent event) {
+    if (event.productId() == null) {
+      products.invalidateAll();
+      fragments.invalidateAll();
+    } else {
+      products.invalidate(event.productId());
+      fragments.invalidate(event.productId());
+    }
+    pages.invalidateAll();
+  }
+
+  private byte[] renderArray(List<Product> content, long revision) {
+    if (content.isEmpty()) {
+      return EMPTY_ARRAY;
+    }
+    byte[][] parts = new byte[content.size()][];
+    int length = 1 + content.size(); // brackets and separators
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = fragment(content.get(i), revision);
+      length += parts[i].length;
+    }
+
+    byte[] json = new byte[length];
+    int pos = 0;
+    json[pos++] = '[';
+    for (int i = 0; i < parts.length; i++) {
+      if (i > 0) {
+        json[pos++] = ',';
+      }
+      System.arraycopy(parts[i], 0, json, pos, parts[i].length);
+      pos += parts[i].length;
+    }
+    json[pos] = ']';
+    return json;
+  }
+
+  private byte[] fragment(Product product, long revision) {
+    byte[] json = fragments.getIfPresent(product.getId());
+    if (json == null) {
+      log.debug("Rendering snapshot of page element {}", product.getId());
+      json = write(listConverter(), product);
+      byte[] rendered = json;
+      putIfCurrent(revision, () -> fragments.put(product.getId(), rendered));
+    }
+    return json;
+  }
+
+  // A change committed while rendering may have been rendered from the old model; serve it once
+  // but do not keep it
+  private void putIfCurrent(long revision, Runnable put) {
+    if (catalogCache.revision() == revision) {
+      put.run();
+    }
+  }
+
+  private HttpMessageConverter<Object> productConverter() {
+    if (productConverter == null) {
+      productConverter = findConverter(Product.class);
+    }
+    return productConverter;
+  }
+
+  private HttpMessageConverter<Object> listConverter() {
+    if (listConverter == null) {
+      listConverter = findConverter(List.class);
+    }
+    return listConverter;
+  }
+
+  @SuppressWarnings("unchecked")
+  private HttpMessageConverter<Object> findConverter(Class<?> type) {
+    for (HttpMessageConverter<?> converter : handlerAdapter.getObject().getMessageConverters()) {
+      if (!(converter instanceof PreRenderedJsonHttpMessageConverter)
+          && converter.canWrite(type, MediaType.APPLICATION_JSON)) {
+        return (HttpMessageConverter<Object>) converter;
+      }
+    }
+    throw new IllegalStateException("No JSON message converter for " + type.getName());
+  }
+
+  private static byte[] write(HttpMessageConverter<Object> converter, Product model) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+    HttpHeaders headers = new HttpHeaders();
+    try {
+      converter.write(model, MediaType.APPLICATION_JSON, new HttpOutputMessage() {
+        @Override
+        public OutputStream getBody() {
+          return out;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+          return headers;
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+
+/**
+ * A {@link Product} that carries its pre-rendered JSON. The model fields are copied so the XML
+ * representation stays available.
+ * <p>
+ * Instances are cached and shared between requests: a caller that needs to change the model must
+ * copy it first, otherwise the fields and the JSON no longer agree.
+ */
+public class RenderedProduct extends Product implements PreRenderedJson {
+
+  private final transient byte[] json;
+
+  RenderedProduct(Product product, byte[] json) {
+    this.json = json;
+    id(product.getId())
+        .name(product.getName())
+        .description(product.getDescription())
+        .imageUrl(product.getImageUrl())
+        .price(product.getPrice())
+        .count(product.getCount())
+        .tag(product.getTag());
+  }
+
+  @Override
+  public byte[] json() {
+    return json;
+  }
+}
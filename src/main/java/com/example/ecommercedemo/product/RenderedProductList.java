@@ -0,0 +1,39 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import org.springframework.data.domain.Slice;
+
+import java.util.AbstractList;
+
+/**
+ * One page of the catalog together with its pre-rendered JSON array.
+ */
+public class RenderedProductList extends AbstractList<Product> implements PreRenderedJson {
+
+  private final Slice<Product> slice;
+  private final byte[] json;
+
+  RenderedProductList(Slice<Product> slice, byte[] json) {
+    this.slice = slice;
+    this.json = json;
+  }
+
+  public Slice<Product> slice() {
+    return slice;
+  }
+
+  @Override
+  public byte[] json() {
+    return json;
+  }
+
+  @Override
+  public Product get(int index) {
+    return slice.getContent().get(index);
+  }
+
+  @Override
+  public int size() {
+    return slice.getNumberOfElements();
+  }
+}
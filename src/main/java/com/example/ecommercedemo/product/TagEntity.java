@@ -1,5 +1,6 @@
 package com.example.ecommercedemo.product;
 
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -8,6 +9,7 @@ import lombok.experimental.Accessors;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(ProductCatalogEntityListener.class)
 @Table(name = "tag")
 @Getter
 @Setter
@@ -17,7 +19,7 @@ import java.util.UUID;
 public class TagEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
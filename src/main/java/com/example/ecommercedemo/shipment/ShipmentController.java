@@ -47,7 +47,7 @@ public class ShipmentController implements ShipmentApi {
 
   @Override
   public ResponseEntity<Shipment> shipOrder (UUID orderId, ShipmentReq shipmentReq) {
-    log.info("Shipment request for Order Id: {}", orderId);
+    log.debug("Shipment request for Order Id: {}", orderId);
     return null;
   }
 }
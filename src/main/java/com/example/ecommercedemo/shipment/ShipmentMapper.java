@@ -1,7 +1,6 @@
 package com.example.ecommercedemo.shipment;
 
 import com.example.ecommercedemo.model.Shipment;
-import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -17,9 +16,8 @@ public class ShipmentMapper {
 
     Shipment resource = new Shipment();
 
-    // Copy properties and set ID
-    BeanUtils.copyProperties(entity, resource);
-    resource.setId(entity.getId());
+    resource.id(entity.getId())
+        .carrier(entity.getCarrier());
     return resource;
   }
 
@@ -1,18 +1,22 @@
 package com.example.ecommercedemo.shipment;
 
 import com.example.ecommercedemo.model.Shipment;
+import com.example.ecommercedemo.hateoas.LinkTemplate;
 import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class ShipmentRepresentationModelAssembler extends
     RepresentationModelAssemblerSupport<Shipment, Shipment> {
 
+  private static final LinkTemplate BY_ORDER_ID =
+      LinkTemplate.of(methodOn(ShipmentController.class).getShipmentByOrderId(arg(0)));
+
   /**
    * Creates a new {@link RepresentationModelAssemblerSupport}
    * using the given controller class and resource type.
@@ -30,7 +34,7 @@ public class ShipmentRepresentationModelAssembler extends
   public Shipment toModel(Shipment resource) {
 
     // Add HATEOAS links
-    resource.add(linkTo(methodOn(ShipmentController.class).getShipmentByOrderId(resource.getId())).withRel("byOrderId"));
+    resource.add(BY_ORDER_ID.link("byOrderId", resource.getId()));
 
     return resource;
   }
@@ -0,0 +1,45 @@
+package com.example.ecommercedemo.user;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired refresh tokens, so {@code user_token} only holds the tokens that can still be used.
+ * Runs in batches of a separate transaction each, to keep locks and WAL per transaction small.
+ */
+@Component
+public class RefreshTokenPurger {
+
+  private final static Logger log = LoggerFactory.getLogger(RefreshTokenPurger.class);
+
+  private final UserTokenRepository userTokenRepository;
+  private final int batchSize;
+
+  public RefreshTokenPurger(
+      UserTokenRepository userTokenRepository,
+      @Value("${app.security.refresh-token.purge-batch-size:1000}") int batchSize) {
+    this.userTokenRepository = userTokenRepository;
+    this.batchSize = batchSize;
+  }
+
+  @Scheduled(
+      initialDelayString = "${app.security.refresh-token.purge-interval:PT1H}",
+      fixedDelayString = "${app.security.refresh-token.purge-interval:PT1H}")
+  public void purgeExpired() {
+    Instant now = Instant.now();
+    long purged = 0;
+    int deleted;
+    do {
+      deleted = userTokenRepository.deleteExpired(now, batchSize);
+      purged += deleted;
+    } while (deleted == batchSize);
+    if (purged > 0) {
+      log.info("Purged {} expired refresh tokens", purged);
+    }
+  }
+}
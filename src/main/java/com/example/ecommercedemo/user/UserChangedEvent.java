@@ -0,0 +1,12 @@
+package com.example.ecommercedemo.user;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a user row is updated or deleted through JPA (e.g. a password or role change).
+ *
+ * @param userId   the changed user
+ * @param username the user's (current) username
+ */
+public record UserChangedEvent(UUID userId, String username) {
+}
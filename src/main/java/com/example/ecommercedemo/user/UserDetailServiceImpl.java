@@ -1,37 +1,22 @@
 package com.example.ecommercedemo.user;
 
-import org.apache.logging.log4j.util.Strings;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
 public class UserDetailServiceImpl implements UserDetailsService {
 
-  private UserRepository userRepository;
+  private final UserService userService;
 
-  public UserDetailServiceImpl(UserRepository userRepository) {
-    this.userRepository = userRepository;
+  public UserDetailServiceImpl(UserService userService) {
+    this.userService = userService;
   }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    if (Strings.isBlank(username)) {
-      throw new UsernameNotFoundException("Invalid user.");
-    }
-    final String uname = username.trim();
-    Optional<UserEntity> oUserEntity = userRepository.findByUsername(uname);
-    UserEntity userEntity =
-        oUserEntity.orElseThrow(
-            () -> new UsernameNotFoundException(String.format("Given user(%s) not found.", uname)));
-    return User.builder()
-        .username(userEntity.getUsername())
-        .password(userEntity.getPassword())
-        .authorities(userEntity.getRole().getAuthority())
-        .build();
+    // Served from the UserPrincipalCache after the first lookup
+    return userService.findUserByUsername(username).toUserDetails();
   }
 }
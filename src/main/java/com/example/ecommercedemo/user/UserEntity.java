@@ -2,6 +2,7 @@ package com.example.ecommercedemo.user;
 
 import com.example.ecommercedemo.auth.RoleEnum;
 import com.example.ecommercedemo.customer.CustomerEntity;
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.EqualsAndHashCode;
@@ -13,6 +14,7 @@ import lombok.experimental.Accessors;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Table(name = "user")
 @Getter
 @Setter
@@ -21,7 +23,7 @@ import java.util.UUID;
 @Accessors(chain = true) // Enable fluent api, makes the setters return 'this'
 public class UserEntity {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
@@ -0,0 +1,27 @@
+package com.example.ecommercedemo.user;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on {@link UserEntity}. Publishes {@link UserChangedEvent}s, which the
+ * {@link UserPrincipalCache} applies once the transaction has committed. New users need no event,
+ * only found users are cached.
+ */
+@Component
+public class UserEntityListener {
+
+  private final ApplicationEventPublisher publisher;
+
+  public UserEntityListener(ApplicationEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @PostUpdate
+  @PostRemove
+  public void onChange(UserEntity user) {
+    publisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+  }
+}
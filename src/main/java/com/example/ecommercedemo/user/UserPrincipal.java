@@ -0,0 +1,36 @@
+package com.example.ecommercedemo.user;
+
+import com.example.ecommercedemo.auth.RoleEnum;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the sign-in relevant columns of a {@link UserEntity}, so it can be cached
+ * and shared between requests (see {@link UserPrincipalCache}).
+ *
+ * @param password the encoded password
+ */
+public record UserPrincipal(UUID id, String username, String password, RoleEnum role) {
+
+  public static UserPrincipal of(UserEntity userEntity) {
+    return new UserPrincipal(
+        userEntity.getId(), userEntity.getUsername(), userEntity.getPassword(), userEntity.getRole());
+  }
+
+  public UserDetails toUserDetails() {
+    return User.builder()
+        .username(username)
+        .password(password)
+        .authorities(Objects.nonNull(role) ? role.getAuthority() : "")
+        .build();
+  }
+
+  // Keep the password hash out of logs
+  @Override
+  public String toString() {
+    return "UserPrincipal[id=" + id + ", username=" + username + ", role=" + role + "]";
+  }
+}
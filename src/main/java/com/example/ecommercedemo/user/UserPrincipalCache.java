@@ -0,0 +1,75 @@
+package com.example.ecommercedemo.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Users by username (sign-in) and by id (token refresh), so these don't query the user table each
+ * time. Changes made via JPA evict the user right after commit; the time to live bounds staleness
+ * for changes made outside the application.
+ * <p>
+ * Unknown usernames and ids are not cached.
+ */
+@Component
+public class UserPrincipalCache {
+
+  private final static Logger log = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+  private final Cache<String, UserPrincipal> byUsername;
+  private final Cache<UUID, UserPrincipal> byId;
+
+  public UserPrincipalCache(
+      @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+      @Value("${app.security.user-cache.time-to-live:PT10M}") Duration timeToLive,
+      MeterRegistry meterRegistry) {
+    this.byUsername = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "users.by-username");
+    this.byId = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maximumSize, timeToLive), "users.by-id");
+  }
+
+  public Optional<UserPrincipal> getByUsername(String username, Function<String, Optional<UserPrincipal>> loader) {
+    return Optional.ofNullable(byUsername.get(username, key -> loader.apply(key).orElse(null)));
+  }
+
+  public Optional<UserPrincipal> getById(UUID id, Function<UUID, Optional<UserPrincipal>> loader) {
+    return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    evict(event.userId(), event.username());
+  }
+
+  /**
+   * Evicts by key: a load of the same key that is still running completes first and is then
+   * removed, so it can't store the old principal after the eviction.
+   */
+  public void evict(UUID userId, String username) {
+    log.debug("Evicting user {} from the user cache", userId);
+    byId.invalidate(userId);
+    if (username != null) {
+      byUsername.invalidate(username);
+    }
+    // Entries under a previous username, if it was changed
+    byUsername.asMap().values().removeIf(principal -> principal.id().equals(userId));
+  }
+
+  private static <K, V> Cache<K, V> newCache(long maximumSize, Duration timeToLive) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build();
+  }
+}
@@ -10,9 +10,9 @@ public interface UserService {
 
   SignedInUser createUser(SignUpReq user);
 
-  UserEntity findUserByUsername(String username);
+  UserPrincipal findUserByUsername(String username);
 
-  SignedInUser getSignedInUser(UserEntity userEntity);
+  SignedInUser getSignedInUser(UserPrincipal user);
 
   Optional<SignedInUser> getAccessToken(RefreshToken refreshToken);
 
@@ -1,45 +1,62 @@
 package com.example.ecommercedemo.user;
 
 import com.example.ecommercedemo.auth.JwtManager;
+import com.example.ecommercedemo.auth.PasswordHashingService;
 import com.example.ecommercedemo.exception.InvalidRefreshTokenException;
 import com.example.ecommercedemo.exception.UsernameAlreadyExistsException;
 import com.example.ecommercedemo.model.RefreshToken;
 import com.example.ecommercedemo.model.SignedInUser;
 import com.example.ecommercedemo.model.SignUpReq;
 import org.apache.logging.log4j.util.Strings;
-import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+  // 256 bits, encoded as 43 url-safe characters
+  private static final int REFRESH_TOKEN_BYTES = 32;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
   private final UserRepository repository;
   private final UserTokenRepository userTokenRepository;
-  private final PasswordEncoder bCryptPasswordEncoder;
+  private final PasswordHashingService passwordHashing;
   private final JwtManager jwtManager;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration refreshTokenTimeToLive;
+  private final UserPrincipalCache userCache;
 
   public UserServiceImpl(
       UserRepository repository,
       UserTokenRepository userTokenRepository,
-      PasswordEncoder bCryptPasswordEncoder,
-      JwtManager jwtManager) {
+      PasswordHashingService passwordHashing,
+      JwtManager jwtManager,
+      TransactionTemplate transactionTemplate,
+      UserPrincipalCache userCache,
+      @Value("${app.security.refresh-token.time-to-live:P7D}") Duration refreshTokenTimeToLive) {
     this.repository = repository;
     this.userTokenRepository = userTokenRepository;
-    this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+    this.passwordHashing = passwordHashing;
     this.jwtManager = jwtManager;
+    this.transactionTemplate = transactionTemplate;
+    this.refreshTokenTimeToLive = refreshTokenTimeToLive;
+    this.userCache = userCache;
   }
 
   @Override
-  @Transactional
   public SignedInUser createUser(SignUpReq user) {
     // 1. Business Validation Check (handled via exception, caught by @ControllerAdvice)
     Integer count = repository.findByUsernameCount(user.getUsername());
@@ -47,95 +64,104 @@ public class UserServiceImpl implements UserService {
       throw new UsernameAlreadyExistsException("Username already exists, use different username.");
     }
 
-    UserEntity userEntity = repository.save(toEntitySignUpReq(user));
-    return createSignedUserWithRefreshToken(userEntity);
+    // Hash the password before the transaction starts, so no connection is held while BCrypt runs
+    UserEntity newUser = toEntitySignUpReq(user);
+    return transactionTemplate.execute(
+        status -> createSignedUserWithRefreshToken(UserPrincipal.of(repository.save(newUser))));
   }
 
   @Override
   @Transactional
-  public SignedInUser getSignedInUser(UserEntity userEntity) {
-    userTokenRepository.deleteByUserId(userEntity.getId());
-    return createSignedUserWithRefreshToken(userEntity);
+  public SignedInUser getSignedInUser(UserPrincipal user) {
+    userTokenRepository.deleteByUserId(user.id());
+    return createSignedUserWithRefreshToken(user);
   }
 
-  private SignedInUser createSignedUserWithRefreshToken(UserEntity userEntity) {
-    return createSignedInUser(userEntity).refreshToken(createRefreshToken(userEntity));
+  private SignedInUser createSignedUserWithRefreshToken(UserPrincipal user) {
+    return createSignedInUser(user).refreshToken(createRefreshToken(user));
   }
 
   // Calls the jwtManager to create a JWT token
-  private SignedInUser createSignedInUser(UserEntity userEntity) {
+  private SignedInUser createSignedInUser(UserPrincipal user) {
+    // The roles claim holds the bare role names, the resource server adds the ROLE_ prefix
     String token =
         jwtManager.create(
             org.springframework.security.core.userdetails.User.builder()
-                .username(userEntity.getUsername())
-                .password(userEntity.getPassword())
-                .authorities(
-                    Objects.nonNull(userEntity.getRole()) ? userEntity.getRole().name() : "")
+                .username(user.username())
+                .password(user.password())
+                .authorities(Objects.nonNull(user.role()) ? user.role().name() : "")
                 .build());
     return new SignedInUser()
-        .username(userEntity.getUsername())
+        .username(user.username())
         .accessToken(token)
-        .userId(userEntity.getId());
+        .userId(user.id());
   }
 
   @Override
   public Optional<SignedInUser> getAccessToken(RefreshToken refreshToken) {
-    // You may add a validation for time that would remove/invalidate the refresh token
+    // One indexed lookup of the token; the user normally comes from the cache
     return userTokenRepository
-        .findByRefreshToken(refreshToken.getRefreshToken())
+        .findUserIdByValidTokenHash(hash(refreshToken), Instant.now())
+        .flatMap(userId -> userCache.getById(userId, id -> repository.findById(id).map(UserPrincipal::of)))
         .map(
-            ut ->
+            user ->
                 Optional.of(
-                    createSignedInUser(ut.getUser()).refreshToken(refreshToken.getRefreshToken())))
+                    createSignedInUser(user).refreshToken(refreshToken.getRefreshToken())))
         .orElseThrow(() -> new InvalidRefreshTokenException("Invalid token."));
   }
 
   @Override
+  @Transactional
   public void removeRefreshToken(RefreshToken refreshToken) {
-    userTokenRepository
-        .findByRefreshToken(refreshToken.getRefreshToken())
-        .ifPresentOrElse(
-            userTokenRepository::delete,
-            () -> {
-              throw new InvalidRefreshTokenException("Invalid token.");
-            });
+    if (userTokenRepository.deleteByTokenHash(hash(refreshToken)) == 0) {
+      throw new InvalidRefreshTokenException("Invalid token.");
+    }
   }
 
   @Override
-  public UserEntity findUserByUsername(String username) {
+  public UserPrincipal findUserByUsername(String username) {
     if (Strings.isBlank(username)) {
       throw new UsernameNotFoundException("Invalid user.");
     }
     final String uname = username.trim();
-    Optional<UserEntity> oUserEntity = repository.findByUsername(uname);
-    UserEntity userEntity =
-        oUserEntity.orElseThrow(
-            () -> new UsernameNotFoundException(String.format("Given user(%s) not found.", uname)));
-    return userEntity;
+    Optional<UserPrincipal> oUser =
+        userCache.getByUsername(uname, name -> repository.findByUsername(name).map(UserPrincipal::of));
+    return oUser.orElseThrow(
+        () -> new UsernameNotFoundException(String.format("Given user(%s) not found.", uname)));
   }
 
   private UserEntity toEntitySignUpReq(SignUpReq user) {
+    // role (String vs RoleEnum) and customerId have no matching entity property; only username is mapped
     UserEntity userEntity = new UserEntity();
-    BeanUtils.copyProperties(user, userEntity);
-    userEntity.setPassword(bCryptPasswordEncoder.encode(user.getPassword()));
+    userEntity.setUsername(user.getUsername());
+    userEntity.setPassword(passwordHashing.encode(user.getUsername(), user.getPassword()));
     return userEntity;
   }
 
-  private String createRefreshToken(UserEntity user) {
-    String token = RandomHolder.randomKey(128);
-    userTokenRepository.save(new UserTokenEntity().setRefreshToken(token).setUser(user));
+  private String createRefreshToken(UserPrincipal user) {
+    byte[] random = new byte[REFRESH_TOKEN_BYTES];
+    RANDOM.nextBytes(random);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+    userTokenRepository.save(new UserTokenEntity()
+        .setTokenHash(hash(token))
+        .setExpiresAt(Instant.now().plus(refreshTokenTimeToLive))
+        .setUser(repository.getReferenceById(user.id())));
     return token;
   }
 
-  // https://stackoverflow.com/a/31214709/109354
-  // or can use org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric(n)
-  private static class RandomHolder {
-    static final Random random = new SecureRandom();
+  private static byte[] hash(RefreshToken refreshToken) {
+    if (Objects.isNull(refreshToken) || Strings.isBlank(refreshToken.getRefreshToken())) {
+      throw new InvalidRefreshTokenException("Invalid token.");
+    }
+    return hash(refreshToken.getRefreshToken());
+  }
 
-    public static String randomKey(int length) {
-      return String.format(
-              "%" + length + "s", new BigInteger(length * 5 /*base 32,2^5*/, random).toString(32))
-          .replace('\u0020', '0');
+  // Tokens are random, a plain (unsalted) hash is enough to make the stored value useless
+  private static byte[] hash(String token) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
     }
   }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.example.ecommercedemo.user;
 
+import com.example.ecommercedemo.persistence.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.EqualsAndHashCode;
@@ -8,6 +9,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -20,15 +22,22 @@ import java.util.UUID;
 public class UserTokenEntity {
 
   @Id
-  @GeneratedValue
+  @UuidV7
   @Column(name = "ID", updatable = false, nullable = false)
   @ToString.Include
   private UUID id;
 
+  // SHA-256 of the refresh token; the token itself is only known to the client
   @NotNull(message = "Refresh token is required.")
   @Basic(optional = false)
-  @Column(name = "refresh_token")
-  private String refreshToken;
+  @Column(name = "token_hash", updatable = false)
+  private byte[] tokenHash;
+
+  @NotNull(message = "Expiry is required.")
+  @Basic(optional = false)
+  @Column(name = "expires_at", updatable = false)
+  @ToString.Include
+  private Instant expiresAt;
 
   @ManyToOne(fetch = FetchType.LAZY)
   private UserEntity user;
@@ -1,14 +1,37 @@
 package com.example.ecommercedemo.user;
 
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserTokenRepository extends CrudRepository<UserTokenEntity, UUID> {
 
-  Optional<UserTokenEntity> findByRefreshToken(String refreshToken);
+  // Only the id, the user itself comes from the UserPrincipalCache
+  @Query("select t.user.id from UserTokenEntity t where t.tokenHash = :tokenHash and t.expiresAt > :now")
+  Optional<UUID> findUserIdByValidTokenHash(@Param("tokenHash") byte[] tokenHash, @Param("now") Instant now);
 
-  Optional<UserTokenEntity> deleteByUserId(UUID userId);
-}
+  @Modifying
+  @Query("delete from UserTokenEntity t where t.tokenHash = :tokenHash")
+  int deleteByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+  @Modifying
+  @Query("delete from UserTokenEntity t where t.user.id = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
 
+  // Deletes at most batchSize expired tokens, so a purge doesn't hold locks on a large part of the table
+  @Modifying
+  @Transactional
+  @Query(
+      value = """
+        DELETE FROM ecomm.user_token
+        WHERE id IN (SELECT id FROM ecomm.user_token WHERE expires_at < :now LIMIT :batchSize)
+        """,
+      nativeQuery = true)
+  int deleteExpired(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,13 @@
+-- Catalog browse orders by name and id; this index serves the ORDER BY and the page offset
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON ecomm.product (name, id);
+
+-- Case-insensitive name prefix search (lower(name) LIKE 'abc%')
+CREATE INDEX IF NOT EXISTS idx_product_lower_name ON ecomm.product (lower(name) text_pattern_ops);
+
+-- Tag filter: tag name -> tag id -> product ids
+CREATE INDEX IF NOT EXISTS idx_tag_name ON ecomm.tag (name);
+CREATE INDEX IF NOT EXISTS idx_product_tag_tag_id_product_id ON ecomm.product_tag (tag_id, product_id);
+CREATE INDEX IF NOT EXISTS idx_product_tag_product_id ON ecomm.product_tag (product_id);
+
+-- Keep the row estimate used for X-Total-Count-Estimate current after the migration
+ANALYZE ecomm.product;
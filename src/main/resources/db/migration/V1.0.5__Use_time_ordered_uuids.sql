@@ -0,0 +1,25 @@
+-- Version 7 UUID (RFC 9562): 48 bits of Unix epoch milliseconds, then random bits with the
+-- version and variant set. Takes a v4 UUID, overwrites its first 6 bytes with the timestamp and
+-- flips the version nibble from 0100 to 0111. Same layout as the application side @UuidV7.
+CREATE OR REPLACE FUNCTION ecomm.uuid_generate_v7() RETURNS uuid AS $$
+  SELECT encode(
+    set_bit(
+      set_bit(
+        overlay(uuid_send(gen_random_uuid())
+                placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                FROM 1 FOR 6),
+        52, 1),
+      53, 1),
+    'hex')::uuid;
+$$ LANGUAGE sql VOLATILE PARALLEL SAFE;
+
+-- New rows of the write-heavy tables get time-ordered ids, so primary key inserts append to the
+-- right-hand side of the index instead of touching random pages. Existing rows keep their v4 ids;
+-- both kinds are valid UUIDs and keys stay unique.
+-- (cart_item has no surrogate key.)
+ALTER TABLE ecomm.orders ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
+ALTER TABLE ecomm.item ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
+ALTER TABLE ecomm.order_item ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
+ALTER TABLE ecomm.user_token ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
+ALTER TABLE ecomm."authorization" ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
+ALTER TABLE ecomm.cart ALTER COLUMN id SET DEFAULT ecomm.uuid_generate_v7();
@@ -0,0 +1,38 @@
+-- Postgres doesn't index the referencing side of a foreign key. Without these indexes lookups by
+-- the owning customer, cart or order, and the FK checks on delete of the referenced row, scan the
+-- whole table.
+
+-- cart_item had no key at all; remove accidental duplicates before adding it
+DELETE FROM ecomm.cart_item a
+    USING ecomm.cart_item b
+    WHERE a.ctid > b.ctid AND a.cart_id = b.cart_id AND a.item_id = b.item_id;
+ALTER TABLE ecomm.cart_item ADD CONSTRAINT pk_cart_item PRIMARY KEY (cart_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_cart_item_item_id ON ecomm.cart_item (item_id);
+
+-- Same for product_tag; the primary key replaces idx_product_tag_product_id from V1.0.4
+DELETE FROM ecomm.product_tag a
+    USING ecomm.product_tag b
+    WHERE a.ctid > b.ctid AND a.product_id = b.product_id AND a.tag_id = b.tag_id;
+ALTER TABLE ecomm.product_tag ADD CONSTRAINT pk_product_tag PRIMARY KEY (product_id, tag_id);
+DROP INDEX IF EXISTS ecomm.idx_product_tag_product_id;
+
+CREATE INDEX IF NOT EXISTS idx_cart_customer_id ON ecomm.cart (customer_id);
+CREATE INDEX IF NOT EXISTS idx_item_product_id ON ecomm.item (product_id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON ecomm.orders (customer_id);
+CREATE INDEX IF NOT EXISTS idx_orders_address_id ON ecomm.orders (address_id);
+CREATE INDEX IF NOT EXISTS idx_orders_card_id ON ecomm.orders (card_id);
+CREATE INDEX IF NOT EXISTS idx_order_item_order_id ON ecomm.order_item (order_id);
+-- Also serves "item is not ordered" checks when cart items are deleted
+CREATE INDEX IF NOT EXISTS idx_order_item_item_id ON ecomm.order_item (item_id);
+CREATE INDEX IF NOT EXISTS idx_authorization_order_id ON ecomm."authorization" (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_address_customer_id ON ecomm.address (customer_id);
+CREATE INDEX IF NOT EXISTS idx_card_customer_id ON ecomm.card (customer_id);
+CREATE INDEX IF NOT EXISTS idx_customer_username ON ecomm.customer (username);
+
+-- Login and token refresh
+CREATE INDEX IF NOT EXISTS idx_user_username ON ecomm."user" (username);
+CREATE INDEX IF NOT EXISTS idx_user_customer_id ON ecomm."user" (customer_id);
+CREATE INDEX IF NOT EXISTS idx_user_token_refresh_token ON ecomm.user_token (refresh_token);
+CREATE INDEX IF NOT EXISTS idx_user_token_user_id ON ecomm.user_token (user_id);
@@ -0,0 +1,24 @@
+-- Refresh tokens are stored as SHA-256 hashes: fixed width (32 bytes) under a unique index, and a
+-- copy of the table doesn't contain usable tokens. They now expire, so the table can be purged.
+ALTER TABLE ecomm.user_token ADD COLUMN token_hash bytea;
+ALTER TABLE ecomm.user_token ADD COLUMN expires_at timestamp with time zone;
+
+-- Tokens handed out before stay valid for one more lifetime
+UPDATE ecomm.user_token
+    SET token_hash = sha256(convert_to(refresh_token, 'UTF8')),
+        expires_at = now() + interval '7 days'
+    WHERE refresh_token IS NOT NULL;
+DELETE FROM ecomm.user_token WHERE token_hash IS NULL;
+DELETE FROM ecomm.user_token a
+    USING ecomm.user_token b
+    WHERE a.ctid > b.ctid AND a.token_hash = b.token_hash;
+
+ALTER TABLE ecomm.user_token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE ecomm.user_token ALTER COLUMN expires_at SET NOT NULL;
+ALTER TABLE ecomm.user_token ADD CONSTRAINT uq_user_token_token_hash UNIQUE (token_hash);
+
+DROP INDEX IF EXISTS ecomm.idx_user_token_refresh_token;
+ALTER TABLE ecomm.user_token DROP COLUMN refresh_token;
+
+-- For the scheduled purge of expired tokens
+CREATE INDEX IF NOT EXISTS idx_user_token_expires_at ON ecomm.user_token (expires_at);
@@ -0,0 +1,8 @@
+-- Version columns for optimistic locking (JPA @Version): an update or delete of a row that was
+-- changed since it was read affects no row and fails, instead of silently overwriting the change.
+-- The cart's version also covers its items, which are linked with native statements; checkout
+-- increments it as well.
+ALTER TABLE ecomm.cart ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE ecomm.item ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE ecomm.orders ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE ecomm.product ADD COLUMN version bigint NOT NULL DEFAULT 0;
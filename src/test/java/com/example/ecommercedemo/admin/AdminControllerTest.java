@@ -12,11 +12,15 @@ import com.example.ecommercedemo.address.AddressService;
 import com.example.ecommercedemo.card.CardService;
 import com.example.ecommercedemo.customer.CustomerService;
 import com.example.ecommercedemo.order.OrderService;
+import com.example.ecommercedemo.persistence.KeysetPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -25,10 +29,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminController.class)
@@ -208,4 +216,39 @@ public class AdminControllerTest {
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(content().json("[]"));
   }
-}
\ No newline at end of file
+
+  // --- Test Cases for keyset paging ---
+
+  @Test
+  void getAllOrders_shouldLinkNextPage_whenPageIsFull() throws Exception {
+    // Arrange
+    UUID after = UUID.fromString("00000000-0000-0000-0000-000000000010");
+    when(orderService.getOrdersAfter(after, 1)).thenReturn(new SliceImpl<>(mockOrders, PageRequest.ofSize(1), true));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/orders")
+            .param("after", after.toString())
+            .param("limit", "1")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + mockOrders.get(0).getId())))
+        .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+        .andExpect(content().json("[{'status':'CREATED'}]"));
+    verify(orderService, never()).getAllOrders();
+  }
+
+  @Test
+  void getAllCustomers_shouldStartAtFirstPage_andNotLinkAfterLastPage() throws Exception {
+    // Arrange
+    when(customerService.getCustomersAfter(KeysetPage.FIRST, 10))
+        .thenReturn(new SliceImpl<>(mockCustomers, PageRequest.ofSize(10), false));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/customers")
+            .param("limit", "10")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.LINK))
+        .andExpect(content().json("[{'username':'testuser'}]"));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommercedemo.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+  private static final String TOKEN = "header.payload.signature";
+
+  @Mock
+  private JwtDecoder delegate;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final Instant now = Instant.now();
+  private CachingJwtDecoder decoder;
+
+  @BeforeEach
+  void setUp() {
+    decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, Clock.fixed(now, ZoneOffset.UTC));
+  }
+
+  private Jwt jwt(Instant expiresAt) {
+    return Jwt.withTokenValue(TOKEN)
+        .header("alg", "RS256")
+        .subject("scott")
+        .issuedAt(now.minusSeconds(60))
+        .expiresAt(expiresAt)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should verify a token once and serve repeated requests from the cache")
+  void decode_ShouldCacheVerifiedToken() {
+    Jwt jwt = jwt(now.plus(Duration.ofMinutes(15)));
+    when(delegate.decode(TOKEN)).thenReturn(jwt);
+
+    assertSame(jwt, decoder.decode(TOKEN));
+    assertSame(jwt, decoder.decode(TOKEN));
+
+    verify(delegate, times(1)).decode(TOKEN);
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "auth.jwt.verified").tag("result", "hit")
+        .functionCounter().count());
+  }
+
+  @Test
+  @DisplayName("Should verify again after the token expired")
+  void decode_ShouldNotServeExpiredToken() {
+    when(delegate.decode(TOKEN)).thenReturn(jwt(now.minusSeconds(1)));
+
+    decoder.decode(TOKEN);
+    decoder.decode(TOKEN);
+
+    verify(delegate, times(2)).decode(TOKEN);
+  }
+
+  @Test
+  @DisplayName("Should not cache tokens that fail verification")
+  void decode_ShouldNotCacheInvalidToken() {
+    when(delegate.decode(TOKEN)).thenThrow(new BadJwtException("Invalid signature"));
+
+    assertThrows(BadJwtException.class, () -> decoder.decode(TOKEN));
+    assertThrows(BadJwtException.class, () -> decoder.decode(TOKEN));
+
+    verify(delegate, times(2)).decode(TOKEN);
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommercedemo.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.List;
+
+import static com.example.ecommercedemo.auth.Constants.EXPIRATION_TIME;
+import static com.example.ecommercedemo.auth.Constants.ROLE_CLAIM;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtManagerTest {
+
+  private static RSAPublicKey publicKey;
+  private static RSAPrivateKey privateKey;
+  private static KeyPair ecKeyPair;
+  private static JwtKeys rsaKeys;
+
+  @BeforeAll
+  static void generateKeys() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair keyPair = generator.generateKeyPair();
+    publicKey = (RSAPublicKey) keyPair.getPublic();
+    privateKey = (RSAPrivateKey) keyPair.getPrivate();
+    rsaKeys = new JwtKeys(JwtSigningAlgorithm.RS256, "rsa-key", privateKey, publicKey, List.of());
+
+    KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+    ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+    ecKeyPair = ecGenerator.generateKeyPair();
+  }
+
+  private static JwtKeys ecKeys(List<JWK> previousKeys) {
+    return new JwtKeys(JwtSigningAlgorithm.ES256, "ec-key", ecKeyPair.getPrivate(), ecKeyPair.getPublic(), previousKeys);
+  }
+
+  private static UserDetails user(String username, String... authorities) {
+    return User.builder().username(username).password("{noop}secret").authorities(authorities).build();
+  }
+
+  @Test
+  @DisplayName("Should create a token that verifies with the public key and carries the claims")
+  void create_ShouldVerifyAndCarryClaims() {
+    String token = new JwtManager(rsaKeys).create(user("scott", "ROLE_USER", "ROLE_ADMIN"));
+
+    DecodedJWT jwt = JWT.require(Algorithm.RSA256(publicKey, null))
+        .withIssuer(JwtManager.ISSUER)
+        .build()
+        .verify(token);
+    assertEquals("RS256", jwt.getAlgorithm());
+    assertEquals("JWT", jwt.getType());
+    assertEquals("rsa-key", jwt.getKeyId());
+    assertEquals("scott", jwt.getSubject());
+    assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), jwt.getClaim(ROLE_CLAIM).asList(String.class).stream().sorted().toList());
+    assertEquals(EXPIRATION_TIME / 1000, Duration.between(jwt.getIssuedAtAsInstant(), jwt.getExpiresAtAsInstant()).toSeconds());
+  }
+
+  @Test
+  @DisplayName("Should create a token the resource server decoder accepts")
+  void create_ShouldDecodeWithNimbus() {
+    String token = new JwtManager(rsaKeys).create(user("scott", "ROLE_USER"));
+
+    Jwt jwt = NimbusJwtDecoder.withPublicKey(publicKey).build().decode(token);
+    assertEquals("scott", jwt.getSubject());
+    assertEquals(List.of("ROLE_USER"), jwt.getClaimAsStringList(ROLE_CLAIM));
+  }
+
+  @Test
+  @DisplayName("Should escape characters in the username that are special in JSON")
+  void create_ShouldEscapeUsername() {
+    String username = "sc\"ott\\é\n";
+    String token = new JwtManager(rsaKeys).create(user(username, "ROLE_USER"));
+
+    assertEquals(username, JWT.decode(token).getSubject());
+  }
+
+  @Test
+  @DisplayName("Should sign with ES256 when configured")
+  void create_ShouldSignWithEs256() {
+    JwtKeys keys = ecKeys(List.of());
+    String token = new JwtManager(keys).create(user("scott", "ROLE_USER"));
+
+    Jwt jwt = keys.decoder().decode(token);
+    assertEquals("ES256", jwt.getHeaders().get("alg").toString());
+    assertEquals("ec-key", jwt.getHeaders().get("kid"));
+    assertEquals("scott", jwt.getSubject());
+  }
+
+  @Test
+  @DisplayName("Should accept tokens of the previous key during a rotation")
+  void decoder_ShouldAcceptPreviousKey() {
+    String oldToken = new JwtManager(rsaKeys).create(user("scott", "ROLE_USER"));
+    JwtKeys rotated = ecKeys(List.of(JwtSigningAlgorithm.RS256.toJwk(publicKey, "rsa-key")));
+
+    assertEquals("scott", rotated.decoder().decode(oldToken).getSubject());
+    // Without the previous key, the old tokens are rejected
+    assertThrows(JwtException.class, () -> ecKeys(List.of()).decoder().decode(oldToken));
+  }
+
+  @Test
+  @DisplayName("Should refuse a key that doesn't fit the algorithm")
+  void keys_ShouldRejectWrongKeyType() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new JwtKeys(JwtSigningAlgorithm.ES256, "rsa-key", privateKey, publicKey, List.of()));
+  }
+}
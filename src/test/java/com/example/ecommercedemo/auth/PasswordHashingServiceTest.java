@@ -0,0 +1,185 @@
+package com.example.ecommercedemo.auth;
+
+import com.example.ecommercedemo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+  private static final String ENCODED = "{bcrypt}$2a$10$hash";
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private PasswordHashingService service;
+
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    service.destroy();
+  }
+
+  private PasswordHashingService newService(int threads, int queueCapacity, int perUserLimit) {
+    return newService(threads, queueCapacity, perUserLimit, Duration.ofSeconds(5));
+  }
+
+  private PasswordHashingService newService(int threads, int queueCapacity, int perUserLimit, Duration timeout) {
+    return new PasswordHashingService(passwordEncoder, threads, queueCapacity, perUserLimit,
+        timeout, Duration.ofMillis(1500), 100, Duration.ofMinutes(5), meterRegistry);
+  }
+
+  private void awaitGauge(String name, double value) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (meterRegistry.get(name).gauge().value() != value && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  // Lets the encoder block until the test releases it, so calls stay in flight
+  private void blockEncoder() {
+    when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return ENCODED;
+    });
+  }
+
+  @Test
+  @DisplayName("MATCHES: Should skip hashing for a recently verified password")
+  void matches_ShouldCacheSuccessfulVerification() {
+    service = newService(1, 1, 1);
+    when(passwordEncoder.matches("secret", ENCODED)).thenReturn(true);
+
+    assertTrue(service.matches("scott", "secret", ENCODED));
+    assertTrue(service.matches("scott", "secret", ENCODED));
+
+    verify(passwordEncoder, times(1)).matches("secret", ENCODED);
+  }
+
+  @Test
+  @DisplayName("MATCHES: Should hash every failed attempt")
+  void matches_ShouldNotCacheFailedVerification() {
+    service = newService(1, 1, 1);
+    when(passwordEncoder.matches("wrong", ENCODED)).thenReturn(false);
+
+    assertFalse(service.matches("scott", "wrong", ENCODED));
+    assertFalse(service.matches("scott", "wrong", ENCODED));
+
+    verify(passwordEncoder, times(2)).matches("wrong", ENCODED);
+  }
+
+  @Test
+  @DisplayName("MATCHES: Should not accept a cached password after the stored hash changed")
+  void matches_ShouldVerifyAgainstNewHash() {
+    service = newService(1, 1, 1);
+    when(passwordEncoder.matches("secret", ENCODED)).thenReturn(true);
+    when(passwordEncoder.matches("secret", "{bcrypt}$2a$10$other")).thenReturn(false);
+
+    assertTrue(service.matches("scott", "secret", ENCODED));
+    assertFalse(service.matches("scott", "secret", "{bcrypt}$2a$10$other"));
+  }
+
+  @Test
+  @DisplayName("ENCODE: Should reject more concurrent hashes for one user than the limit")
+  void encode_ShouldRejectOverPerUserLimit() throws Exception {
+    service = newService(2, 4, 1);
+    blockEncoder();
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.encode("scott", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    ServiceOverloadedException ex =
+        assertThrows(ServiceOverloadedException.class, () -> service.encode("scott", "b"));
+    assertEquals(Duration.ofMillis(1500), ex.getRetryAfter());
+    assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").tag("reason", "user-limit").counter().count());
+
+    release.countDown();
+    assertEquals(ENCODED, first.get(5, TimeUnit.SECONDS));
+    // The permit is returned once the first hash is done
+    assertEquals(ENCODED, service.encode("scott", "c"));
+  }
+
+  @Test
+  @DisplayName("ENCODE: Should fail fast when the pool and its queue are full")
+  void encode_ShouldRejectWhenSaturated() throws Exception {
+    service = newService(1, 1, 1);
+    blockEncoder();
+
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("alice", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("bob", "b"));
+    // Wait until the second hash sits in the queue
+    awaitGauge("auth.password.hashing.queue.size", 1);
+
+    assertThrows(ServiceOverloadedException.class, () -> service.encode("carol", "c"));
+    assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").tag("reason", "saturated").counter().count());
+
+    release.countDown();
+    assertEquals(ENCODED, running.get(5, TimeUnit.SECONDS));
+    assertEquals(ENCODED, queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("ENCODE: Should count a hash that outlived its caller against the user's limit until it is done")
+  void encode_ShouldHoldPermitOfAbandonedHash() throws Exception {
+    service = newService(2, 4, 1, Duration.ofMillis(500));
+    blockEncoder();
+
+    CompletableFuture<String> abandoned = CompletableFuture.supplyAsync(() -> service.encode("scott", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    ExecutionException ex = assertThrows(ExecutionException.class, () -> abandoned.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(ServiceOverloadedException.class, ex.getCause());
+    assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").tag("reason", "timeout").counter().count());
+
+    // BCrypt can't be interrupted, the abandoned hash still holds the permit
+    assertThrows(ServiceOverloadedException.class, () -> service.encode("scott", "b"));
+    assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").tag("reason", "user-limit").counter().count());
+
+    release.countDown();
+    awaitGauge("auth.password.hashing.active", 0);
+    assertEquals(ENCODED, service.encode("scott", "c"));
+  }
+
+  @Test
+  @DisplayName("ENCODE: Should drop a queued hash whose caller gave up and return its permit")
+  void encode_ShouldDropAbandonedQueuedHash() throws Exception {
+    service = newService(1, 1, 1, Duration.ofMillis(500));
+    blockEncoder();
+
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("alice", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertThrows(ServiceOverloadedException.class, () -> service.encode("bob", "b"));
+
+    assertEquals(0.0, meterRegistry.get("auth.password.hashing.queue.size").gauge().value());
+    // Not rejected by the user limit: the permit was returned, the new hash is queued and times out
+    assertThrows(ServiceOverloadedException.class, () -> service.encode("bob", "c"));
+    assertEquals(0.0, meterRegistry.get("auth.password.hashing.rejected").tag("reason", "user-limit").counter().count());
+
+    release.countDown();
+    assertThrows(Exception.class, () -> running.get(5, TimeUnit.SECONDS)); // alice timed out as well
+    awaitGauge("auth.password.hashing.active", 0);
+    verify(passwordEncoder, never()).encode("b");
+    verify(passwordEncoder, never()).encode("c");
+  }
+}
@@ -3,20 +3,27 @@ package com.example.ecommercedemo.cart;
 import com.example.ecommercedemo.customer.CustomerEntity;
 import com.example.ecommercedemo.item.ItemEntity;
 import com.example.ecommercedemo.product.ProductEntity;
+import com.example.ecommercedemo.product.ProductRepository;
+import com.example.ecommercedemo.exception.ConcurrentUpdateException;
 import com.example.ecommercedemo.exception.ItemAlreadyExistsException;
 import com.example.ecommercedemo.exception.ItemNotFoundException;
 import com.example.ecommercedemo.item.ItemMapper;
 import com.example.ecommercedemo.model.Item;
 import com.example.ecommercedemo.item.ItemRepository;
 import com.example.ecommercedemo.customer.CustomerRepository;
+import com.example.ecommercedemo.persistence.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -42,12 +49,22 @@ class CartServiceTest {
   @Mock
   private CustomerRepository customerRepository; // Mock dependency
 
+  @Mock
+  private ProductRepository productRepository; // Mock dependency
+
   @Mock
   private CartMapper cartMapper; // Mock dependency
 
   @Mock
   private ItemMapper itemMapper; // Mock dependency
 
+  @Mock
+  private ApplicationEventPublisher publisher; // Mock dependency
+
+  @Spy
+  private OptimisticLockRetry retry = new OptimisticLockRetry(
+      TransactionOperations.withoutTransaction(), 3, Duration.ZERO, new SimpleMeterRegistry());
+
   @InjectMocks
   private CartServiceImpl cartService; // The class under test
 
@@ -59,6 +76,7 @@ class CartServiceTest {
 
   // --- Test Data ---
   private UUID customerId;
+  private UUID cartId;
   private UUID existingProductId;
   private UUID newProductId;
   private CustomerEntity customerEntity;
@@ -72,13 +90,23 @@ class CartServiceTest {
    */
   private void mockGetCartEntity() {
     // This simulates the 'getCartEntityByCustomerId' logic
-    when(cartRepository.findCartAndItemsAndProductsByCustomerId(customerId)).thenReturn(Optional.of(cartEntity));
+    when(cartRepository.findCartAndItemsByCustomerId(customerId)).thenReturn(Optional.of(cartEntity));
+  }
+
+  /**
+   * Helper method to simulate the private getCartVersionByCustomerId method, used by the targeted
+   * cart mutations. Incrementing the version succeeds, i.e. there is no concurrent change.
+   */
+  private void mockGetCartId() {
+    when(cartRepository.findVersionByCustomerId(customerId)).thenReturn(Optional.of(new CartVersion(cartId, 4)));
+    lenient().when(cartRepository.incrementVersion(cartId, 4)).thenReturn(1);
   }
 
   @BeforeEach
   void setUp() {
     // Setup common test data
     customerId = UUID.randomUUID();
+    cartId = UUID.randomUUID();
     existingProductId = UUID.randomUUID();
     newProductId = UUID.randomUUID();
 
@@ -107,16 +135,23 @@ class CartServiceTest {
     // Ensure CustomerRepo always returns a Customer when looked up by a non-null ID
     // This prevents CustomerNotFoundException when testing validation for other null parameters.
     lenient().when(customerRepository.findById(any(UUID.class))).thenReturn(Optional.of(customerEntity));
-    lenient().when(itemRepository.save(any(ItemEntity.class))).then(AdditionalAnswers.returnsFirstArg());
+    // Products are referenced by id, like the proxies of the persistence context
+    lenient().when(productRepository.getReferenceById(any(UUID.class)))
+        .then(invocation -> new ProductEntity().setId(invocation.getArgument(0)));
+    // Saving items assigns their ids, like the @UuidV7 generator does
+    lenient().when(itemRepository.saveAll(anyList())).then(invocation -> {
+      List<ItemEntity> items = invocation.getArgument(0);
+      items.forEach(item -> item.setId(UUID.randomUUID()));
+      return items;
+    });
   }
 
   @Test
   @DisplayName("ADD: Should add a new item when cart is empty")
   void addItemToCart_WhenCartIsEmpty_ShouldAddNewItem() {
     // --- Setup ---
-    when(cartRepository.save(any(CartEntity.class))).then(AdditionalAnswers.returnsFirstArg());
-    mockGetCartEntity();
-    cartEntity.setItems(new ArrayList<>());
+    mockGetCartId();
+    when(itemRepository.existsByCartIdAndProductId(cartId, newProductId)).thenReturn(false);
 
     // Create a new item DTO
     Item newItemDto = new Item();
@@ -131,26 +166,82 @@ class CartServiceTest {
     newItemEntity.setProduct(newProduct);
 
     when(itemMapper.modelToEntity(any(Item.class))).thenReturn(newItemEntity);
+    when(itemRepository.findByCartId(cartId)).thenReturn(List.of(newItemEntity));
 
     // --- Execute ---
     cartService.addItemToCart(customerId, newItemDto);
 
     // --- Verify ---
-    verify(cartRepository).save(cartEntityCaptor.capture());
-    CartEntity savedCart = cartEntityCaptor.getValue();
-
-    // Assert: One item was added
-    assertEquals(1, savedCart.getItems().size());
+    // Assert: One cart_item row was inserted for the new item, the cart itself is not loaded or saved
+    verify(itemRepository).insertCartItemJoins(cartId, List.of(newItemEntity.getId()));
+    verify(cartRepository, never()).findCartAndItemsByCustomerId(any());
+    verify(cartRepository, never()).save(any());
     // Assert: Mapper was called
     verify(itemMapper, times(1)).modelToEntity(newItemDto);
+    // Assert: The item references the product through the persistence context
+    verify(productRepository).getReferenceById(newProductId);
+    // Assert: The response is mapped from the cart's items
+    verify(cartMapper).entityToModel(cartEntityCaptor.capture());
+    assertEquals(List.of(newItemEntity), cartEntityCaptor.getValue().getItems());
+    // Assert: The cart's version and ETag change
+    verify(cartRepository).incrementVersion(cartId, 4);
+    verify(publisher).publishEvent(new CartChangedEvent(customerId));
+  }
+
+  @Test
+  @DisplayName("ADD: Should repeat the change on the current cart when the cart changed concurrently")
+  void addItemToCart_WhenCartChangedConcurrently_ShouldRetry() {
+    // --- Setup ---
+    // The first attempt reads version 4, another request has incremented it when it's written
+    when(cartRepository.findVersionByCustomerId(customerId))
+        .thenReturn(Optional.of(new CartVersion(cartId, 4)), Optional.of(new CartVersion(cartId, 5)));
+    when(cartRepository.incrementVersion(cartId, 4)).thenReturn(0);
+    when(cartRepository.incrementVersion(cartId, 5)).thenReturn(1);
+    when(itemMapper.modelToEntity(any(Item.class))).then(invocation -> new ItemEntity());
+
+    Item newItemDto = new Item();
+    newItemDto.setProductId(newProductId);
+    newItemDto.setQuantity(3);
+    newItemDto.setUnitPrice("50.00");
+
+    // --- Execute ---
+    cartService.addItemToCart(customerId, newItemDto);
+
+    // --- Verify ---
+    // Both attempts check for the item again; in a database the first attempt is rolled back
+    verify(itemRepository, times(2)).existsByCartIdAndProductId(cartId, newProductId);
+    verify(cartRepository).incrementVersion(cartId, 5);
+    // Only the committed change is published
+    verify(publisher, times(1)).publishEvent(new CartChangedEvent(customerId));
+  }
+
+  @Test
+  @DisplayName("REPLACE: Should throw ConcurrentUpdateException when every attempt conflicts")
+  void replaceItemInCart_WhenConflictsPersist_ShouldThrowException() {
+    // --- Setup ---
+    when(cartRepository.findVersionByCustomerId(customerId)).thenReturn(Optional.of(new CartVersion(cartId, 4)));
+    when(cartRepository.incrementVersion(cartId, 4)).thenReturn(0);
+    when(itemRepository.findByCartIdAndProductId(cartId, existingProductId))
+        .thenReturn(Optional.of(existingItemEntity));
+
+    Item updatedItemDto = new Item();
+    updatedItemDto.setProductId(existingProductId);
+    updatedItemDto.setQuantity(5);
+    updatedItemDto.setUnitPrice("99.50");
+
+    // --- Execute & Assert ---
+    assertThrows(ConcurrentUpdateException.class,
+        () -> cartService.replaceItemInCart(customerId, updatedItemDto));
+    verify(cartRepository, times(3)).incrementVersion(cartId, 4);
+    verify(publisher, never()).publishEvent(any());
   }
 
   @Test
   @DisplayName("ADD: Should throw ItemAlreadyExistsException if item already exists")
   void addItemToCart_WhenItemExists_ShouldThrowException() {
     // --- Setup ---
-//    when(cartRepository.save(any(CartEntity.class))).then(AdditionalAnswers.returnsFirstArg());
-    mockGetCartEntity(); // Cart already contains existingProductId
+    mockGetCartId(); // Cart already contains existingProductId
+    when(itemRepository.existsByCartIdAndProductId(cartId, existingProductId)).thenReturn(true);
     Item itemDto = new Item(); // Create an item DTO that matches the existing product
     itemDto.setProductId(existingProductId);
 
@@ -164,17 +255,17 @@ class CartServiceTest {
     assertTrue(exception.getMessage().contains("already exists"));
 
     // Verify no save occurred
-    verify(cartRepository, never()).save(any());
+    verify(itemRepository, never()).saveAll(any());
+    verify(itemRepository, never()).insertCartItemJoins(any(), any());
   }
 
   @Test
   @DisplayName("Should update quantity and price when item already exists in cart")
   void addOrReplaceItems_WhenItemExists_ShouldUpdateItem() {
     // --- Setup ---
-    when(cartRepository.save(any(CartEntity.class))).then(AdditionalAnswers.returnsFirstArg());
-//    when(itemMapper.entityToModelList(anyList())).thenReturn(new ArrayList<Item>());
-    // Mock the call to get the cart
-    mockGetCartEntity();
+    mockGetCartId();
+    when(itemRepository.findByCartIdAndProductId(cartId, existingProductId))
+        .thenReturn(Optional.of(existingItemEntity));
 
     // Create an 'Item' DTO that matches the existing product
     Item updatedItemDto = new Item();
@@ -186,32 +277,22 @@ class CartServiceTest {
     cartService.replaceItemInCart(customerId, updatedItemDto);
 
     // --- Verify ---
-    // Verify that repository.save() was called
-    verify(cartRepository).save(cartEntityCaptor.capture());
-
     // Verify that the mapper was *not* called to create a new entity
     verify(itemMapper, never()).modelToEntity(any(Item.class));
+    verify(itemRepository, never()).insertCartItemJoins(any(), any());
 
-    // Get the cart entity that was "saved"
-    CartEntity savedCart = cartEntityCaptor.getValue();
-
-    // Assert: The list size should still be 1
-    assertEquals(1, savedCart.getItems().size());
-
-    // Assert: The item in the list should have updated values
-    ItemEntity updatedEntity = savedCart.getItems().getFirst();
-    assertEquals(5, updatedEntity.getQuantity());
-    assertEquals(new BigDecimal("99.50"), updatedEntity.getPrice());
-    assertEquals(existingProductId, updatedEntity.getProduct().getId());
+    // Assert: The managed item has the updated values
+    assertEquals(5, existingItemEntity.getQuantity());
+    assertEquals(new BigDecimal("99.50"), existingItemEntity.getPrice());
+    assertEquals(existingProductId, existingItemEntity.getProduct().getId());
   }
 
   @Test
   @DisplayName("Should add new item when item does not exist in cart")
   void addOrReplaceItems_WhenItemIsNew_ShouldAddItemToList() {
     // --- Setup ---
-    when(cartRepository.save(any(CartEntity.class))).then(AdditionalAnswers.returnsFirstArg());
-    // Mock the call to get the cart (which has 1 item already)
-    mockGetCartEntity();
+    mockGetCartId();
+    when(itemRepository.findByCartIdAndProductId(cartId, newProductId)).thenReturn(Optional.empty());
 
     // This is the new item entity that the mapper will "create"
     ProductEntity newProduct = new ProductEntity();
@@ -230,77 +311,56 @@ class CartServiceTest {
 
     // Mock the mapper to return this new entity
     when(itemMapper.modelToEntity(any(Item.class))).thenReturn(newItemEntity);
+    when(itemRepository.findByCartId(cartId)).thenReturn(List.of(existingItemEntity, newItemEntity));
 
     // --- Execute ---
     cartService.replaceItemInCart(customerId, newItemDto);
 
     // --- Verify ---
-    // Verify that repository.save() was called
-    verify(cartRepository).save(cartEntityCaptor.capture());
-
     // Verify that the mapper *was* called to create the new entity
     verify(itemMapper, times(1)).modelToEntity(newItemDto);
+    verify(itemRepository).saveAll(List.of(newItemEntity));
+    verify(itemRepository).insertCartItemJoins(cartId, List.of(newItemEntity.getId()));
 
-    // Get the cart entity that was "saved"
-    CartEntity savedCart = cartEntityCaptor.getValue();
-
-    // Assert: The list size should now be 2
-    assertEquals(2, savedCart.getItems().size());
-
-    // Assert: The new item is in the list
-    // (Order isn't guaranteed, so we check if *any* item matches)
-    assertTrue(savedCart.getItems().stream()
+    // Assert: The response contains both items
+    verify(cartMapper).entityToModel(cartEntityCaptor.capture());
+    assertEquals(2, cartEntityCaptor.getValue().getItems().size());
+    assertTrue(cartEntityCaptor.getValue().getItems().stream()
         .anyMatch(item -> item.getProduct().getId().equals(newProductId)));
   }
 
   @Test
-  @DisplayName("Should add item to a cart with a null item list")
-  void addOrReplaceItems_WhenCartItemsListIsNull_ShouldCreateListAndAddItem() {
+  @DisplayName("DELETE_ITEM: Should remove only the cart_item row and the unordered item")
+  void deleteItemFromCart_WhenItemExists_ShouldDeleteCartItem() {
     // --- Setup ---
-    when(cartRepository.save(any(CartEntity.class))).then(AdditionalAnswers.returnsFirstArg());
-    // Create an empty cart and set its items list to null
-    CartEntity emptyCart = new CartEntity();
-    emptyCart.setCustomer(customerEntity);
-    emptyCart.setItems(null); // <-- This is the key part of this test
-
-    // Mock the repository to return this empty cart
-    when(cartRepository.findCartAndItemsAndProductsByCustomerId(customerId)).thenReturn(java.util.Optional.of(emptyCart));
-
-    // This is the new item entity that the mapper will "create"
-    ProductEntity newProduct = new ProductEntity();
-    newProduct.setId(newProductId);
-    ItemEntity newItemEntity = new ItemEntity();
-    newItemEntity.setProduct(newProduct);
-    newItemEntity.setQuantity(1);
-
-    // Mock the mapper and save
-    when(itemMapper.modelToEntity(any(Item.class))).thenReturn(newItemEntity);
-
-    // Create a 'Item' DTO for the new product
-    Item newItemDto = new Item();
-    newItemDto.setProductId(newProductId);
-    newItemDto.setQuantity(1);
-    newItemDto.setUnitPrice("10.00");
+    mockGetCartId();
+    existingItemEntity.setId(UUID.randomUUID());
+    when(itemRepository.findByCartIdAndProductId(cartId, existingProductId))
+        .thenReturn(Optional.of(existingItemEntity));
 
     // --- Execute ---
-    cartService.replaceItemInCart(customerId, newItemDto);
+    cartService.deleteItemFromCartByCustomerIdAndProductId(customerId, existingProductId);
 
     // --- Verify ---
-    // Verify save was called
-    verify(cartRepository).save(cartEntityCaptor.capture());
-
-    // Verify mapper was called
-    verify(itemMapper, times(1)).modelToEntity(newItemDto);
-
-    // Get the saved cart
-    CartEntity savedCart = cartEntityCaptor.getValue();
+    verify(itemRepository).deleteCartItemJoinById(List.of(existingItemEntity.getId()), cartId);
+    verify(itemRepository).deleteUnorderedItemsByIds(List.of(existingItemEntity.getId()));
+    verify(cartRepository, never()).save(any());
+    verify(publisher).publishEvent(new CartChangedEvent(customerId));
+  }
 
-    // Assert: The cart's item list should no longer be null
-    assertNotNull(savedCart.getItems());
+  @Test
+  @DisplayName("DELETE_ITEM: Should throw ItemNotFoundException when product is missing from cart")
+  void deleteItemFromCart_WhenItemIsMissing_ShouldThrowException() {
+    // --- Setup ---
+    mockGetCartId();
+    when(itemRepository.findByCartIdAndProductId(cartId, newProductId)).thenReturn(Optional.empty());
 
-    // Assert: The list size should be 1
-    assertEquals(1, savedCart.getItems().size());
-    assertEquals(newItemEntity, savedCart.getItems().getFirst());
+    // --- Execute & Assert ---
+    assertThrows(
+        ItemNotFoundException.class,
+        () -> cartService.deleteItemFromCartByCustomerIdAndProductId(customerId, newProductId)
+    );
+    verify(itemRepository, never()).deleteCartItemJoinById(any(), any());
   }
 
   @Test
@@ -481,7 +541,7 @@ class CartServiceTest {
     // 1. Verify the repository's delete method was called with the entity's ID
     verify(cartRepository, times(1)).delete(cartEntity);
     // 2. Verify findByCustomerId was called (via mockGetCartEntity)
-    verify(cartRepository, times(1)).findCartAndItemsAndProductsByCustomerId(customerId);
+    verify(cartRepository, times(1)).findCartAndItemsByCustomerId(customerId);
   }
 
 }
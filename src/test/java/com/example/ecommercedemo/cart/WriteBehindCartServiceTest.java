@@ -0,0 +1,173 @@
+package com.example.ecommercedemo.cart;
+
+import com.example.ecommercedemo.exception.ItemAlreadyExistsException;
+import com.example.ecommercedemo.exception.ItemNotFoundException;
+import com.example.ecommercedemo.model.Cart;
+import com.example.ecommercedemo.model.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindCartServiceTest {
+
+  @Mock
+  private CartServiceImpl delegate;
+
+  @Mock
+  private ApplicationEventPublisher publisher;
+
+  private SimpleMeterRegistry meterRegistry;
+  private InMemoryCartStore store;
+  private WriteBehindCartService cartService;
+
+  private UUID customerId;
+  private UUID productId;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    store = new InMemoryCartStore(Duration.ofMinutes(30), meterRegistry);
+    cartService = new WriteBehindCartService(delegate, store, publisher, 3, meterRegistry);
+
+    customerId = UUID.randomUUID();
+    productId = UUID.randomUUID();
+
+    // The persisted cart is empty
+    lenient().when(delegate.getOrCreateCart(customerId))
+        .thenReturn(new Cart().id(UUID.randomUUID()).customerId(customerId).items(new ArrayList<>()));
+  }
+
+  private Item item(UUID productId, int quantity) {
+    return new Item().productId(productId).quantity(quantity).unitPrice("10.00");
+  }
+
+  @Test
+  @DisplayName("ADD: Should keep the item in the store and persist it on the next flush")
+  void addItemToCart_ShouldPersistOnFlush() {
+    // --- Execute ---
+    Cart cart = cartService.addItemToCart(customerId, item(productId, 2));
+
+    // --- Verify ---
+    assertEquals(1, cart.getItems().size());
+    verify(publisher).publishEvent(new CartChangedEvent(customerId));
+    verify(delegate, never()).saveCartItems(any(), anyList());
+
+    cartService.flushChanged();
+    verify(delegate).saveCartItems(eq(customerId),
+        argThat(items -> items.size() == 1 && productId.equals(items.getFirst().getProductId())));
+
+    // Nothing changed since, so the next flush has nothing to do
+    cartService.flushChanged();
+    verify(delegate, times(1)).saveCartItems(any(), anyList());
+  }
+
+  @Test
+  @DisplayName("ADD: Should throw ItemAlreadyExistsException if item already exists")
+  void addItemToCart_WhenItemExists_ShouldThrowException() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+
+    assertThrows(ItemAlreadyExistsException.class,
+        () -> cartService.addItemToCart(customerId, item(productId, 1)));
+  }
+
+  @Test
+  @DisplayName("REPLACE/DELETE: Should update and remove items in the store")
+  void replaceAndDeleteItems() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+
+    cartService.replaceItemInCart(customerId, item(productId, 5));
+    assertEquals(5, cartService.getCartItemByProductId(customerId, productId).getQuantity().intValue());
+
+    cartService.deleteItemFromCartByCustomerIdAndProductId(customerId, productId);
+    assertThrows(ItemNotFoundException.class,
+        () -> cartService.getCartItemByProductId(customerId, productId));
+    assertThrows(ItemNotFoundException.class,
+        () -> cartService.deleteItemFromCartByCustomerIdAndProductId(customerId, productId));
+  }
+
+  @Test
+  @DisplayName("GET: Returned carts are copies of the stored cart")
+  void getCart_ShouldReturnCopies() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+
+    Cart cart = cartService.getCartByCustomerId(customerId).orElseThrow();
+    cart.setItems(List.of());
+
+    assertEquals(1, cartService.getCartItemsByCustomerId(customerId).size());
+  }
+
+  @Test
+  @DisplayName("FLUSH: Should keep the change for the next flush when persisting fails")
+  void flushChanged_WhenSaveFails_ShouldRetry() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+    doThrow(new IllegalStateException("database down"))
+        .doNothing()
+        .when(delegate).saveCartItems(eq(customerId), anyList());
+
+    cartService.flushChanged();
+    cartService.flushChanged();
+
+    verify(delegate, times(2)).saveCartItems(eq(customerId), anyList());
+  }
+
+  @Test
+  @DisplayName("FLUSH: Should drop a cart that fails to persist on every attempt")
+  void flushChanged_WhenSaveKeepsFailing_ShouldDropCart() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+    doThrow(new IllegalStateException("unknown product")).when(delegate).saveCartItems(eq(customerId), anyList());
+
+    for (int i = 0; i < 4; i++) {
+      cartService.flushChanged();
+    }
+
+    // Three attempts, then the customer gets the persisted (empty) cart back
+    verify(delegate, times(3)).saveCartItems(eq(customerId), anyList());
+    assertTrue(store.get(customerId).isEmpty());
+    assertTrue(cartService.getCartItemsByCustomerId(customerId).isEmpty());
+    assertEquals(3, meterRegistry.get("cart.store.write-back.failures").counter().count());
+    assertEquals(1, meterRegistry.get("cart.store.write-back.dropped").counter().count());
+  }
+
+  @Test
+  @DisplayName("SHUTDOWN: Should persist changed carts when stopped")
+  void stop_ShouldPersistChangedCarts() {
+    cartService.start();
+    cartService.addItemToCart(customerId, item(productId, 1));
+
+    cartService.stop();
+
+    verify(delegate).saveCartItems(eq(customerId), anyList());
+    assertFalse(cartService.isRunning());
+  }
+
+  @Test
+  @DisplayName("CHECKOUT: Should persist pending changes and drop the stored cart")
+  void flushForCheckout_ShouldPersistAndDropCart() {
+    cartService.addItemToCart(customerId, item(productId, 1));
+
+    cartService.flushForCheckout(customerId);
+
+    verify(delegate).saveCartItems(eq(customerId), anyList());
+    assertTrue(store.get(customerId).isEmpty());
+    // Already persisted, the scheduled flush doesn't write it again
+    cartService.flushChanged();
+    verify(delegate, times(1)).saveCartItems(any(), anyList());
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommercedemo.concurrency;
+
+import com.example.ecommercedemo.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestConcurrencyLimiterTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private RequestConcurrencyLimiter limiter;
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    limiter = new RequestConcurrencyLimiter(1, Duration.ofMillis(10), Duration.ofSeconds(2), meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should reject a request over the limit with the Retry-After delay")
+  void preHandle_ShouldRejectOverLimit() {
+    assertTrue(limiter.preHandle(new MockHttpServletRequest(), response, null));
+
+    ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+        () -> limiter.preHandle(new MockHttpServletRequest(), response, null));
+    assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+    assertEquals(1, meterRegistry.get("http.server.requests.concurrency.rejected").counter().count());
+    assertEquals(1, meterRegistry.get("http.server.requests.concurrency.active").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Should free the slot when a request completes")
+  void afterCompletion_ShouldReleasePermit() {
+    MockHttpServletRequest first = new MockHttpServletRequest();
+    limiter.preHandle(first, response, null);
+    // A forward in the same request doesn't take a second slot
+    assertTrue(limiter.preHandle(first, response, null));
+    limiter.afterCompletion(first, response, null, null);
+
+    assertTrue(limiter.preHandle(new MockHttpServletRequest(), response, null));
+  }
+
+  @Test
+  @DisplayName("Should not free a slot for a request that was rejected")
+  void afterCompletion_ShouldIgnoreRejectedRequest() {
+    limiter.preHandle(new MockHttpServletRequest(), response, null);
+    MockHttpServletRequest rejected = new MockHttpServletRequest();
+    assertThrows(ServiceOverloadedException.class, () -> limiter.preHandle(rejected, response, null));
+    limiter.afterCompletion(rejected, response, null, null);
+
+    assertThrows(ServiceOverloadedException.class,
+        () -> limiter.preHandle(new MockHttpServletRequest(), response, null));
+  }
+}
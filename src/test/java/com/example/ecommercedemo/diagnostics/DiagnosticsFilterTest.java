@@ -0,0 +1,95 @@
+package com.example.ecommercedemo.diagnostics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.example.ecommercedemo.auth.RoleEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DiagnosticsFilterTest {
+
+  private final DiagnosticsFilter filter = new DiagnosticsFilter();
+  private final DiagnosticsTurboFilter turboFilter = new DiagnosticsTurboFilter();
+  private final LoggerContext loggerContext = new LoggerContext();
+
+  @BeforeEach
+  void setUp() {
+    turboFilter.addLoggerPrefix("org.hibernate.SQL");
+    turboFilter.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private void authenticate(String role) {
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+        "user", null, List.of(new SimpleGrantedAuthority(role))));
+  }
+
+  // Runs a request through the filter and returns the turbo filter's decision for a SQL debug log
+  private FilterReply decisionDuringRequest(boolean withHeader) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders");
+    if (withHeader) {
+      request.addHeader(DiagnosticsFilter.HEADER, "true");
+    }
+    AtomicReference<FilterReply> reply = new AtomicReference<>();
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> reply.set(turboFilter.decide(
+        null, loggerContext.getLogger("org.hibernate.SQL"), Level.DEBUG, "select", null, null)));
+    return reply.get();
+  }
+
+  @Test
+  @DisplayName("Should enable the configured loggers for an admin request with the header")
+  void adminWithHeader() throws Exception {
+    authenticate(RoleEnum.Const.ADMIN);
+
+    assertEquals(FilterReply.ACCEPT, decisionDuringRequest(true));
+    // Only for the duration of the request
+    assertNull(MDC.get(DiagnosticsTurboFilter.MDC_KEY));
+  }
+
+  @Test
+  @DisplayName("Should ignore the header of non-admin users")
+  void userWithHeader() throws Exception {
+    authenticate(RoleEnum.Const.USER);
+
+    assertEquals(FilterReply.NEUTRAL, decisionDuringRequest(true));
+  }
+
+  @Test
+  @DisplayName("Should leave log levels alone without the header")
+  void adminWithoutHeader() throws Exception {
+    authenticate(RoleEnum.Const.ADMIN);
+
+    assertEquals(FilterReply.NEUTRAL, decisionDuringRequest(false));
+  }
+
+  @Test
+  @DisplayName("Should only enable loggers matching a configured prefix")
+  void otherLoggers() {
+    MDC.put(DiagnosticsTurboFilter.MDC_KEY, "true");
+    try {
+      assertEquals(FilterReply.NEUTRAL, turboFilter.decide(
+          null, loggerContext.getLogger("org.springframework.web"), Level.DEBUG, "x", null, null));
+    } finally {
+      MDC.remove(DiagnosticsTurboFilter.MDC_KEY);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommercedemo.etag;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetInterceptorTest {
+
+  private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+  private final ConditionalGetInterceptor interceptor =
+      new ConditionalGetInterceptor(id -> ID.equals(id) ? Optional.of("r1") : Optional.empty());
+
+  private static MockHttpServletRequest get(String id) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/" + id);
+    request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", id));
+    request.addHeader(HttpHeaders.ACCEPT, "application/json");
+    return request;
+  }
+
+  @Test
+  @DisplayName("Should send the ETag and let the handler respond")
+  void preHandle_ShouldSetEtag() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(get(ID.toString()), response, null));
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+    assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("\"r1-"));
+  }
+
+  @Test
+  @DisplayName("Should answer a matching If-None-Match with 304 without calling the handler")
+  void preHandle_ShouldAnswerNotModified() {
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    interceptor.preHandle(get(ID.toString()), first, null);
+
+    MockHttpServletRequest request = get(ID.toString());
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertFalse(interceptor.preHandle(request, response, null));
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+  }
+
+  @Test
+  @DisplayName("Should tag each representation separately")
+  void preHandle_ShouldVaryWithAccept() {
+    MockHttpServletResponse json = new MockHttpServletResponse();
+    interceptor.preHandle(get(ID.toString()), json, null);
+
+    MockHttpServletRequest request = get(ID.toString());
+    request.removeHeader(HttpHeaders.ACCEPT);
+    request.addHeader(HttpHeaders.ACCEPT, "application/xml");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG));
+    MockHttpServletResponse xml = new MockHttpServletResponse();
+
+    assertTrue(interceptor.preHandle(request, xml, null));
+    assertNotEquals(json.getHeader(HttpHeaders.ETAG), xml.getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  @DisplayName("Should leave unknown or malformed ids and other methods to the handler")
+  void preHandle_ShouldSkipWithoutTag() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(interceptor.preHandle(get(UUID.randomUUID().toString()), response, null));
+    assertTrue(interceptor.preHandle(get("not-a-uuid"), response, null));
+
+    MockHttpServletRequest post = get(ID.toString());
+    post.setMethod("POST");
+    assertTrue(interceptor.preHandle(post, response, null));
+    assertNull(response.getHeader(HttpHeaders.ETAG));
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.ecommercedemo.etag;
+
+import com.example.ecommercedemo.cart.CartChangedEvent;
+import com.example.ecommercedemo.order.OrderChangedEvent;
+import com.example.ecommercedemo.order.OrderRepository;
+import com.example.ecommercedemo.product.ProductCatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceRevisionsTest {
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  private ResourceRevisions revisions;
+
+  @BeforeEach
+  void setUp() {
+    revisions = new ResourceRevisions(100, Duration.ofMinutes(10), orderRepository, new SimpleMeterRegistry());
+  }
+
+  @Test
+  @DisplayName("Should keep a tag until the resource changes")
+  void tags_ShouldChangeWithResource() {
+    String catalog = revisions.catalogTag();
+    assertEquals(catalog, revisions.catalogTag());
+    revisions.onCatalogChanged(new ProductCatalogChangedEvent(UUID.randomUUID()));
+    assertNotEquals(catalog, revisions.catalogTag());
+
+    UUID customerId = UUID.randomUUID();
+    UUID otherCustomerId = UUID.randomUUID();
+    String cart = revisions.cartTag(customerId);
+    String otherCart = revisions.cartTag(otherCustomerId);
+    revisions.onCartChanged(new CartChangedEvent(customerId));
+    assertNotEquals(cart, revisions.cartTag(customerId));
+    assertEquals(otherCart, revisions.cartTag(otherCustomerId));
+  }
+
+  @Test
+  @DisplayName("Should look up the customer of an order once and change the tag with the customer's orders")
+  void orderTag_ShouldChangeWithCustomer() {
+    UUID orderId = UUID.randomUUID();
+    UUID customerId = UUID.randomUUID();
+    when(orderRepository.findCustomerIdById(orderId)).thenReturn(Optional.of(customerId));
+
+    String tag = revisions.orderTag(orderId).orElseThrow();
+    assertEquals(tag, revisions.orderTag(orderId).orElseThrow());
+    revisions.onOrderChanged(new OrderChangedEvent(customerId));
+    assertNotEquals(tag, revisions.orderTag(orderId).orElseThrow());
+
+    verify(orderRepository, times(1)).findCustomerIdById(orderId);
+  }
+
+  @Test
+  @DisplayName("Should have no tag for an unknown order")
+  void orderTag_ShouldBeEmptyForUnknownOrder() {
+    UUID orderId = UUID.randomUUID();
+    when(orderRepository.findCustomerIdById(orderId)).thenReturn(Optional.empty());
+
+    assertTrue(revisions.orderTag(orderId).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should never repeat the tags of another instance or of before a restart")
+  void tags_ShouldDifferPerInstance() {
+    ResourceRevisions restarted = new ResourceRevisions(100, Duration.ofMinutes(10), orderRepository, new SimpleMeterRegistry());
+
+    assertNotEquals(revisions.catalogTag(), restarted.catalogTag());
+  }
+}
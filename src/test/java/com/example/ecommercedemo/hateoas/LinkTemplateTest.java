@@ -0,0 +1,63 @@
+package com.example.ecommercedemo.hateoas;
+
+import com.example.ecommercedemo.cart.CartController;
+import com.example.ecommercedemo.product.ProductController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+
+import static com.example.ecommercedemo.hateoas.LinkTemplate.arg;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplateTest {
+
+  private final UUID customerId = UUID.randomUUID();
+  private final UUID productId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+    request.setScheme("https");
+    request.setServerName("shop.example.com");
+    request.setServerPort(8443);
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  @DisplayName("EXPAND: Should produce the same href as linkTo for several path variables")
+  void expand_MatchesLinkTo() {
+    LinkTemplate template =
+        LinkTemplate.of(methodOn(CartController.class).getCustomerCartItemByProductId(arg(0), arg(1)));
+
+    Link expected =
+        linkTo(methodOn(CartController.class).getCustomerCartItemByProductId(customerId, productId)).withSelfRel();
+    Link actual = template.selfLink(customerId, productId);
+
+    assertEquals(expected.getHref(), actual.getHref());
+    assertEquals(expected.getRel(), actual.getRel());
+  }
+
+  @Test
+  @DisplayName("EXPAND: Should keep query parameters of templates without arguments")
+  void expand_KeepsQuery() {
+    LinkTemplate template = LinkTemplate.of(methodOn(ProductController.class).queryProducts(null, null, 1, 10));
+
+    assertEquals(
+        linkTo(methodOn(ProductController.class).queryProducts(null, null, 1, 10)).withRel("products").getHref(),
+        template.link("products").getHref());
+  }
+}
@@ -1,16 +1,24 @@
 package com.example.ecommercedemo.order;
 
+import com.example.ecommercedemo.cart.WriteBehindCartService;
 import com.example.ecommercedemo.customer.CustomerEntity;
 import com.example.ecommercedemo.model.Order;
 import com.example.ecommercedemo.model.OrderReq;
+import com.example.ecommercedemo.persistence.OptimisticLockRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +37,13 @@ class OrderServiceTest {
   @Mock
   private OrderMapper orderMapper;
 
+  @Mock
+  private ObjectProvider<WriteBehindCartService> writeBehindCartService;
+
+  @Spy
+  private OptimisticLockRetry retry = new OptimisticLockRetry(
+      TransactionOperations.withoutTransaction(), 3, Duration.ZERO, new SimpleMeterRegistry());
+
   @InjectMocks
   private OrderServiceImpl orderService;
 
@@ -91,6 +106,25 @@ class OrderServiceTest {
     verify(orderRepository, times(1)).insert(customerId, orderReq);
   }
 
+  @Test
+  @DisplayName("ADD: Should repeat the checkout when the cart changed concurrently")
+  void addOrder_WhenCartChangedConcurrently_ShouldRetry() {
+    // --- Setup Mocks ---
+    when(orderRepository.insert(customerId, orderReq))
+        .thenThrow(new ObjectOptimisticLockingFailureException(OrderEntity.class, orderId))
+        .thenReturn(orderEntity);
+    when(orderMapper.entityToModel(orderEntity)).thenReturn(orderModel);
+
+    // --- Execute ---
+    Order result = orderService.addOrder(customerId, orderReq);
+
+    // --- Assert & Verify ---
+    assertEquals(orderModel.getId(), result.getId());
+    verify(orderRepository, times(2)).insert(customerId, orderReq);
+    // Pending cart changes are written again, the first write was rolled back
+    verify(writeBehindCartService, times(2)).ifAvailable(any());
+  }
+
   // ------------------------------------------------------------------
   // Validation Tests for addOrder (IllegalArgumentException)
   // ------------------------------------------------------------------
@@ -214,7 +248,7 @@ class OrderServiceTest {
   @DisplayName("GET_BY_ORDER_ID: Should return Optional<Order> when found")
   void getOrderId_WhenFound_ReturnsOptionalOrderBy() {
     // --- Setup Mocks ---
-    when(orderRepository.findById(orderId)).thenReturn(Optional.of(orderEntity));
+    when(orderRepository.findDetailById(orderId)).thenReturn(Optional.of(orderEntity));
     when(orderMapper.entityToModel(orderEntity)).thenReturn(orderModel);
 
     // --- Execute ---
@@ -223,21 +257,21 @@ class OrderServiceTest {
     // --- Assert & Verify ---
     assertTrue(result.isPresent());
     assertEquals(orderId, result.get().getId());
-    verify(orderRepository, times(1)).findById(orderId);
+    verify(orderRepository, times(1)).findDetailById(orderId);
   }
 
   @Test
   @DisplayName("GET_BY_ORDER_ID: Should return Optional.empty() when not found")
   void getOrderById_WhenNotFound_ReturnsEmptyOptional() {
     // --- Setup Mocks ---
-    when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+    when(orderRepository.findDetailById(orderId)).thenReturn(Optional.empty());
 
     // --- Execute ---
     Optional<Order> result = orderService.getOrderById(orderId);
 
     // --- Assert & Verify ---
     assertFalse(result.isPresent());
-    verify(orderRepository, times(1)).findById(orderId);
+    verify(orderRepository, times(1)).findDetailById(orderId);
     verify(orderMapper, never()).entityToModel(any());
   }
 }
\ No newline at end of file
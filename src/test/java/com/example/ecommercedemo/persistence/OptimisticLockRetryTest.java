@@ -0,0 +1,80 @@
+package com.example.ecommercedemo.persistence;
+
+import com.example.ecommercedemo.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private OptimisticLockRetry retry;
+  private final AtomicInteger attempts = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    retry = new OptimisticLockRetry(TransactionOperations.withoutTransaction(), 3, Duration.ofMillis(1), meterRegistry);
+  }
+
+  // Conflicts on the first attempts, then succeeds
+  private String conflicting(int conflicts) {
+    if (attempts.incrementAndGet() <= conflicts) {
+      throw new ObjectOptimisticLockingFailureException(Object.class, UUID.randomUUID());
+    }
+    return "written";
+  }
+
+  @Test
+  @DisplayName("Should repeat a write that conflicted and count the conflicts")
+  void execute_ShouldRetryConflicts() {
+    assertEquals("written", retry.execute("test", () -> conflicting(2)));
+
+    assertEquals(3, attempts.get());
+    assertEquals(2, meterRegistry.get("persistence.optimistic-lock.conflicts").tag("operation", "test").counter().count());
+    assertNull(meterRegistry.find("persistence.optimistic-lock.exhausted").counter());
+  }
+
+  @Test
+  @DisplayName("Should give up after the maximum attempts with a ConcurrentUpdateException")
+  void execute_ShouldGiveUpAfterMaxAttempts() {
+    ConcurrentUpdateException ex = assertThrows(ConcurrentUpdateException.class,
+        () -> retry.execute("test", () -> conflicting(3)));
+
+    assertEquals(3, attempts.get());
+    assertInstanceOf(ObjectOptimisticLockingFailureException.class, ex.getCause());
+    assertEquals(1, meterRegistry.get("persistence.optimistic-lock.exhausted").tag("operation", "test").counter().count());
+  }
+
+  @Test
+  @DisplayName("Should not repeat other failures")
+  void execute_ShouldNotRetryOtherFailures() {
+    assertThrows(IllegalStateException.class, () -> retry.run("test", () -> {
+      attempts.incrementAndGet();
+      throw new IllegalStateException();
+    }));
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  @DisplayName("Should run once within an existing transaction, which only its owner can repeat")
+  void execute_ShouldNotRetryWithinTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("test", () -> conflicting(1)));
+      assertEquals(1, attempts.get());
+    } finally {
+      TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+  }
+}
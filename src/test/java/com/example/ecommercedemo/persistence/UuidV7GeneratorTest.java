@@ -0,0 +1,44 @@
+package com.example.ecommercedemo.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+  @Test
+  @DisplayName("Generates version 7 UUIDs with the RFC variant")
+  void generatesVersion7() {
+    UUID id = UuidV7Generator.next();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+  }
+
+  @Test
+  @DisplayName("Embeds the current Unix epoch milliseconds")
+  void embedsTimestamp() {
+    long before = System.currentTimeMillis();
+    UUID id = UuidV7Generator.next();
+    long after = System.currentTimeMillis();
+
+    long millis = id.getMostSignificantBits() >>> 16;
+    // The sequence may run ahead of the clock by a few milliseconds under load
+    assertTrue(millis >= before && millis <= after + 100, "timestamp " + millis);
+  }
+
+  @Test
+  @DisplayName("Consecutive ids are strictly increasing in their textual order")
+  void strictlyIncreasing() {
+    String previous = UuidV7Generator.next().toString();
+    for (int i = 0; i < 10_000; i++) {
+      String next = UuidV7Generator.next().toString();
+      assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+      previous = next;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingProductServiceTest {
+
+  @Mock
+  private ProductServiceImpl delegate;
+
+  private SimpleMeterRegistry meterRegistry;
+  private ProductCatalogCache cache;
+  private CachingProductService productService;
+
+  private final UUID productId = UUID.randomUUID();
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new ProductCatalogCache(100, Duration.ofMinutes(10), meterRegistry);
+    productService = new CachingProductService(delegate, cache);
+    product = new Product().id(productId).name("product").price("10");
+  }
+
+  @Test
+  @DisplayName("GET_BY_ID: Should hit the database only once for repeated reads")
+  void getProductById_IsCached() {
+    when(delegate.getProductById(productId)).thenReturn(Optional.of(product));
+
+    assertEquals(product, productService.getProductById(productId).orElseThrow());
+    assertEquals(product, productService.getProductById(productId).orElseThrow());
+
+    verify(delegate, times(1)).getProductById(productId);
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "catalog.products").tag("result", "hit")
+        .functionCounter().count());
+  }
+
+  @Test
+  @DisplayName("QUERY: Equivalent queries should share one cache entry")
+  void queryProducts_NormalizesKey() {
+    Slice<Product> slice = new SliceImpl<>(List.of(product), PageRequest.of(0, 10), false);
+    when(delegate.queryProducts("tag", "pro", 1, 10)).thenReturn(slice);
+
+    productService.queryProducts("tag", "Pro", 1, 10);
+    productService.queryProducts(" tag ", " pro ", 0, 10);
+
+    verify(delegate, times(1)).queryProducts("tag", "pro", 1, 10);
+  }
+
+  @Test
+  @DisplayName("INVALIDATE: A product change should evict the product and all pages")
+  void onCatalogChanged_EvictsEntries() {
+    when(delegate.getProductById(productId)).thenReturn(Optional.of(product));
+    when(delegate.getAllProducts()).thenReturn(List.of(product));
+    productService.getProductById(productId);
+    productService.getAllProducts();
+    long revision = cache.revision();
+
+    cache.onCatalogChanged(new ProductCatalogChangedEvent(productId));
+    productService.getProductById(productId);
+    productService.getAllProducts();
+
+    verify(delegate, times(2)).getProductById(productId);
+    verify(delegate, times(2)).getAllProducts();
+    assertTrue(cache.revision() > revision);
+  }
+}
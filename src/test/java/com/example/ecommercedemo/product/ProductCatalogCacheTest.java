@@ -0,0 +1,69 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogCacheTest {
+
+  private final ProductCatalogCache catalogCache = new ProductCatalogCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+  private final UUID productId = UUID.randomUUID();
+  private final Product oldProduct = new Product().id(productId).name("Laptop Pro").price("1200.00").count(15);
+  private final Product newProduct = new Product().id(productId).name("Laptop Pro").price("999.00").count(15);
+
+  @Test
+  @DisplayName("Should advance the revision only once the changed product is evicted")
+  void onCatalogChanged_ShouldBumpRevisionAfterEviction() throws Exception {
+    long revision = catalogCache.revision();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch loaded = new CountDownLatch(1);
+
+    // A load of the old product is in flight when the change commits; the eviction waits for it
+    CompletableFuture<Optional<Product>> load = CompletableFuture.supplyAsync(() ->
+        catalogCache.getProduct(productId, id -> {
+          loading.countDown();
+          await(loaded);
+          return Optional.of(oldProduct);
+        }));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    Thread change = Thread.ofPlatform().start(
+        () -> catalogCache.onCatalogChanged(new ProductCatalogChangedEvent(productId)));
+    awaitBlocked(change);
+
+    // A render starting now reads the revision and then gets the old product: with the new revision
+    // its snapshot would be kept
+    assertEquals(revision, catalogCache.revision());
+
+    loaded.countDown();
+    assertEquals(oldProduct, load.get(5, TimeUnit.SECONDS).orElseThrow());
+    change.join(TimeUnit.SECONDS.toMillis(5));
+    assertEquals(revision + 1, catalogCache.revision());
+    assertEquals(newProduct, catalogCache.getProduct(productId, id -> Optional.of(newProduct)).orElseThrow());
+  }
+
+  private static void awaitBlocked(Thread thread) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (thread.getState() != Thread.State.BLOCKED) {
+      assertTrue(System.nanoTime() < deadline, "eviction did not wait for the load in flight");
+      Thread.sleep(1);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -15,6 +17,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,35 +58,61 @@ public class ProductControllerTest {
   @Test
   void queryProducts_shouldReturn200Ok_andListOfProducts() throws Exception {
     // Arrange
-    // NOTE: The controller ignores the query parameters (tag, name, page, size)
-    // and always calls productService.getAllProducts(). We mock this call.
-    when(productService.getAllProducts()).thenReturn(mockProductList);
+    when(productService.queryProducts(null, null, 1, 10))
+        .thenReturn(new SliceImpl<>(mockProductList, PageRequest.of(0, 10), false));
+    when(productService.estimateProductCount()).thenReturn(2L);
 
     // Act & Assert
     mockMvc.perform(get("/api/v1/products")
-            .param("page", "0") // Test with optional parameter
+            .param("page", "1")
             .param("size", "10")
             .accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk()) // Expect 200 OK
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().string("X-Total-Count-Estimate", "2"))
+        .andExpect(header().doesNotExist("Link"))
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(2))
         .andExpect(jsonPath("$[0].name").value("Laptop Pro"));
 
-    // Verify that the service method called matches the controller implementation
-    verify(productService, times(1)).getAllProducts();
+    verify(productService, times(1)).queryProducts(null, null, 1, 10);
+    verify(productService, never()).getAllProducts();
+  }
+
+  @Test
+  void queryProducts_shouldPassFilters_andLinkToNextPage() throws Exception {
+    // Arrange
+    when(productService.queryProducts("electronics", "lap", 2, 1))
+        .thenReturn(new SliceImpl<>(List.of(mockProduct), PageRequest.of(1, 1), true));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/products")
+            .param("tag", "electronics")
+            .param("name", "lap")
+            .param("page", "2")
+            .param("size", "1")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Link", containsString("page=3")))
+        .andExpect(header().doesNotExist("X-Total-Count-Estimate"))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    verify(productService, never()).estimateProductCount();
   }
 
   @Test
   void queryProducts_shouldReturn200Ok_andEmptyList() throws Exception {
     // Arrange
-    when(productService.getAllProducts()).thenReturn(List.of());
+    when(productService.queryProducts(null, null, 1, 10))
+        .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+    when(productService.estimateProductCount()).thenReturn(-1L);
 
     // Act & Assert
     mockMvc.perform(get("/api/v1/products")
             .accept(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().doesNotExist("X-Total-Count-Estimate"))
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(0));
   }
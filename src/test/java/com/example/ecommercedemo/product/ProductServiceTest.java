@@ -9,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -90,6 +91,40 @@ class ProductServiceTest {
     verify(productRepository, times(1)).findAllWithTags();
   }
 
+  @Test
+  @DisplayName("QUERY: Should load only the requested page and report a next page")
+  void queryProducts_ReturnsPage_WithNextFlag() {
+    // --- Setup Mocks ---
+    UUID secondId = UUID.randomUUID();
+    List<ProductEntity> entityList = List.of(productEntity);
+    when(productRepository.findIdPage("tag", "prod", 0, 2)).thenReturn(List.of(productId, secondId));
+    when(productRepository.findAllWithTagsByIdIn(List.of(productId))).thenReturn(entityList);
+    when(productMapper.entityToModelList(entityList)).thenReturn(List.of(productModel));
+
+    // --- Execute ---
+    Slice<Product> result = productService.queryProducts("tag", " Prod ", 1, 1);
+
+    // --- Assert & Verify ---
+    assertEquals(1, result.getNumberOfElements());
+    assertTrue(result.hasNext());
+    verify(productRepository, never()).findAllWithTags();
+  }
+
+  @Test
+  @DisplayName("QUERY: Should clamp page and size and skip loading when the page is empty")
+  void queryProducts_ClampsArguments_AndReturnsEmptySlice() {
+    // --- Setup Mocks ---
+    when(productRepository.findIdPage(null, null, 0, ProductQuery.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+    // --- Execute ---
+    Slice<Product> result = productService.queryProducts("", null, 0, 10_000);
+
+    // --- Assert & Verify ---
+    assertFalse(result.hasContent());
+    assertFalse(result.hasNext());
+    verify(productRepository, never()).findAllWithTagsByIdIn(any());
+  }
+
   @Test
   @DisplayName("GET_BY_ID: Should return Optional.of(Product) when found")
   void getProductById_WhenFound_ReturnsProduct() {
@@ -0,0 +1,76 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ProductController.class)
+@WithMockUser(username = "testuser")
+public class ProductSnapshotControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private ProductService productService;
+
+  @MockBean
+  private ProductSnapshotStore snapshotStore;
+
+  @MockBean
+  private JwtDecoder jwtDecoder;
+
+  private final UUID PRODUCT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+  @Test
+  void getProductById_shouldWriteSnapshotBytes() throws Exception {
+    // Arrange
+    String json = "{\"id\":\"" + PRODUCT_ID + "\",\"name\":\"snapshot\"}";
+    Product product = new Product().id(PRODUCT_ID).name("snapshot");
+    when(snapshotStore.getProduct(PRODUCT_ID))
+        .thenReturn(Optional.of(new RenderedProduct(product, json.getBytes(StandardCharsets.UTF_8))));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/products/{id}", PRODUCT_ID)
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().string(json));
+
+    verify(productService, never()).getProductById(any());
+  }
+
+  @Test
+  void queryProducts_shouldWriteSnapshotBytes() throws Exception {
+    // Arrange
+    String json = "[{\"name\":\"snapshot\"}]";
+    SliceImpl<Product> slice = new SliceImpl<>(List.of(new Product().name("snapshot")), PageRequest.of(0, 10), false);
+    when(snapshotStore.queryProducts(null, null, 1, 10))
+        .thenReturn(new RenderedProductList(slice, json.getBytes(StandardCharsets.UTF_8)));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/products")
+            .accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().string(json));
+
+    verify(productService, never()).queryProducts(any(), any(), anyInt(), anyInt());
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.ecommercedemo.product;
+
+import com.example.ecommercedemo.model.Product;
+import com.example.ecommercedemo.model.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Snapshot mode must not change the response: the rendered bytes are compared with the body the
+ * controller writes without snapshots (this context has none), using the same message converters.
+ */
+@WebMvcTest(ProductController.class)
+@WithMockUser(username = "testuser")
+public class ProductSnapshotStoreTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ApplicationContext context;
+
+  @MockBean
+  private ProductService productService;
+
+  @MockBean
+  private JwtDecoder jwtDecoder;
+
+  private final UUID PRODUCT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+  private ProductSnapshotStore snapshotStore;
+
+  @BeforeEach
+  void setUp() {
+    Product laptop = new Product()
+        .id(PRODUCT_ID)
+        .name("Laptop Pro")
+        .description("14 inch")
+        .imageUrl("/images/laptop.png")
+        .price("1200.00")
+        .count(15)
+        .tag(List.of(new Tag().id(UUID.randomUUID()).name("computers")));
+    Product mouse = new Product().id(UUID.randomUUID()).name("Mouse Wireless").price("25.00").count(50);
+
+    when(productService.getProductById(PRODUCT_ID)).thenReturn(Optional.of(laptop));
+    when(productService.queryProducts(null, null, 1, 10))
+        .thenReturn(new SliceImpl<>(List.of(laptop, mouse), PageRequest.of(0, 10), false));
+
+    snapshotStore = new ProductSnapshotStore(productService, mock(ProductCatalogCache.class),
+        context.getBeanProvider(RequestMappingHandlerAdapter.class), 100, Duration.ofMinutes(10),
+        new SimpleMeterRegistry());
+  }
+
+  @Test
+  void getProduct_shouldRenderTheRegularResponse() throws Exception {
+    byte[] regular = mockMvc.perform(get("/api/v1/products/{id}", PRODUCT_ID).accept(MediaType.APPLICATION_JSON))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    assertArrayEquals(regular, snapshotStore.getProduct(PRODUCT_ID).orElseThrow().json());
+  }
+
+  @Test
+  void getProduct_shouldReturnTheCachedInstance() {
+    RenderedProduct rendered = snapshotStore.getProduct(PRODUCT_ID).orElseThrow();
+
+    assertSame(rendered, snapshotStore.getProduct(PRODUCT_ID).orElseThrow());
+    verify(productService, times(1)).getProductById(PRODUCT_ID);
+  }
+
+  @Test
+  void queryProducts_shouldRenderTheRegularResponse() throws Exception {
+    byte[] regular = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_JSON))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    assertArrayEquals(regular, snapshotStore.queryProducts(null, null, 1, 10).json());
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.ecommercedemo.user;
+
+import com.example.ecommercedemo.auth.RoleEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPrincipalCacheTest {
+
+  private final UserPrincipalCache userCache = new UserPrincipalCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+  private final UUID userId = UUID.randomUUID();
+  private final UserPrincipal oldPrincipal = new UserPrincipal(userId, "scott", "{bcrypt}old-hash", RoleEnum.USER);
+  private final UserPrincipal newPrincipal = new UserPrincipal(userId, "scott", "{bcrypt}new-hash", RoleEnum.USER);
+
+  @Test
+  @DisplayName("Should not keep a principal that was loading while the user changed")
+  void onUserChanged_ShouldEvictLoadInProgress() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch changed = new CountDownLatch(1);
+
+    // The load has read the old password when the change commits
+    CompletableFuture<Optional<UserPrincipal>> load = CompletableFuture.supplyAsync(() ->
+        userCache.getByUsername("scott", name -> {
+          loading.countDown();
+          await(changed);
+          return Optional.of(oldPrincipal);
+        }));
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Void> evict = CompletableFuture.runAsync(
+        () -> userCache.onUserChanged(new UserChangedEvent(userId, "scott")));
+    changed.countDown();
+
+    assertEquals(oldPrincipal, load.get(5, TimeUnit.SECONDS).orElseThrow());
+    evict.get(5, TimeUnit.SECONDS);
+    assertEquals(newPrincipal, userCache.getByUsername("scott", name -> Optional.of(newPrincipal)).orElseThrow());
+  }
+
+  @Test
+  @DisplayName("Should evict the entries of a user by id and under a previous username")
+  void onUserChanged_ShouldEvictRenamedUser() {
+    userCache.getByUsername("scott", name -> Optional.of(oldPrincipal));
+    userCache.getById(userId, id -> Optional.of(oldPrincipal));
+
+    userCache.onUserChanged(new UserChangedEvent(userId, "scott2"));
+
+    assertTrue(userCache.getByUsername("scott", name -> Optional.empty()).isEmpty());
+    assertEquals(newPrincipal, userCache.getById(userId, id -> Optional.of(newPrincipal)).orElseThrow());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.example.ecommercedemo.user;
+
+import com.example.ecommercedemo.auth.JwtManager;
+import com.example.ecommercedemo.auth.PasswordHashingService;
+import com.example.ecommercedemo.auth.RoleEnum;
+import com.example.ecommercedemo.exception.InvalidRefreshTokenException;
+import com.example.ecommercedemo.model.RefreshToken;
+import com.example.ecommercedemo.model.SignedInUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private UserTokenRepository userTokenRepository;
+
+  @Mock
+  private PasswordHashingService passwordHashing;
+
+  @Mock
+  private JwtManager jwtManager;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private UserPrincipalCache userCache;
+  private UserServiceImpl userService;
+
+  private UserEntity userEntity;
+
+  @BeforeEach
+  void setUp() {
+    userCache = new UserPrincipalCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    userService = new UserServiceImpl(userRepository, userTokenRepository, passwordHashing, jwtManager,
+        transactionTemplate, userCache, Duration.ofDays(7));
+
+    userEntity = new UserEntity();
+    userEntity.setId(UUID.randomUUID());
+    userEntity.setUsername("scott");
+    userEntity.setPassword("{bcrypt}hash");
+    userEntity.setRole(RoleEnum.USER);
+
+    lenient().when(jwtManager.create(any())).thenReturn("access-token");
+  }
+
+  private static byte[] sha256(String token) throws Exception {
+    return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  @DisplayName("SIGN IN: Should store only the hash of the new refresh token, with an expiry")
+  void getSignedInUser_ShouldStoreHashedToken() throws Exception {
+    ArgumentCaptor<UserTokenEntity> captor = ArgumentCaptor.forClass(UserTokenEntity.class);
+    Instant before = Instant.now();
+
+    when(userRepository.getReferenceById(userEntity.getId())).thenReturn(userEntity);
+
+    SignedInUser signedInUser = userService.getSignedInUser(UserPrincipal.of(userEntity));
+
+    verify(userTokenRepository).deleteByUserId(userEntity.getId());
+    verify(userTokenRepository).save(captor.capture());
+    UserTokenEntity stored = captor.getValue();
+    assertEquals(43, signedInUser.getRefreshToken().length());
+    assertArrayEquals(sha256(signedInUser.getRefreshToken()), stored.getTokenHash());
+    assertFalse(stored.getExpiresAt().isBefore(before.plus(Duration.ofDays(7))));
+    assertSame(userEntity, stored.getUser());
+  }
+
+  @Test
+  @DisplayName("REFRESH: Should look up a token by its hash and the user in the cache")
+  void getAccessToken_ShouldFindByHash() throws Exception {
+    when(userTokenRepository.findUserIdByValidTokenHash(eq(sha256("token")), any(Instant.class)))
+        .thenReturn(Optional.of(userEntity.getId()));
+    when(userRepository.findById(userEntity.getId())).thenReturn(Optional.of(userEntity));
+
+    SignedInUser signedInUser = userService.getAccessToken(new RefreshToken().refreshToken("token")).orElseThrow();
+    userService.getAccessToken(new RefreshToken().refreshToken("token"));
+
+    assertEquals("access-token", signedInUser.getAccessToken());
+    assertEquals("token", signedInUser.getRefreshToken());
+    assertEquals(userEntity.getId(), signedInUser.getUserId());
+    // The second refresh is served from the cache
+    verify(userRepository, times(1)).findById(userEntity.getId());
+  }
+
+  @Test
+  @DisplayName("REFRESH: Should reject an unknown or expired token")
+  void getAccessToken_ShouldRejectUnknownToken() {
+    when(userTokenRepository.findUserIdByValidTokenHash(any(), any())).thenReturn(Optional.empty());
+
+    assertThrows(InvalidRefreshTokenException.class,
+        () -> userService.getAccessToken(new RefreshToken().refreshToken("token")));
+  }
+
+  @Test
+  @DisplayName("SIGN OUT: Should reject a token that wasn't stored")
+  void removeRefreshToken_ShouldRejectUnknownToken() {
+    when(userTokenRepository.deleteByTokenHash(any())).thenReturn(0);
+
+    assertThrows(InvalidRefreshTokenException.class,
+        () -> userService.removeRefreshToken(new RefreshToken().refreshToken("token")));
+  }
+
+  @Test
+  @DisplayName("SIGN OUT: Should reject a request without token")
+  void removeRefreshToken_ShouldRejectMissingToken() {
+    assertThrows(InvalidRefreshTokenException.class,
+        () -> userService.removeRefreshToken(new RefreshToken()));
+    verifyNoInteractions(userTokenRepository);
+  }
+
+  @Test
+  @DisplayName("SIGN IN: Should load a user once and again after a change")
+  void findUserByUsername_ShouldCacheUntilChanged() {
+    when(userRepository.findByUsername("scott")).thenReturn(Optional.of(userEntity));
+
+    assertEquals(userEntity.getId(), userService.findUserByUsername(" scott ").id());
+    userService.findUserByUsername("scott");
+    verify(userRepository, times(1)).findByUsername("scott");
+
+    // e.g. a new password, published by the UserEntityListener
+    userEntity.setPassword("{bcrypt}new-hash");
+    userCache.onUserChanged(new UserChangedEvent(userEntity.getId(), userEntity.getUsername()));
+
+    assertEquals("{bcrypt}new-hash", userService.findUserByUsername("scott").password());
+    verify(userRepository, times(2)).findByUsername("scott");
+  }
+
+  @Test
+  @DisplayName("SIGN IN: Should not cache unknown usernames")
+  void findUserByUsername_ShouldRejectUnknownUser() {
+    when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+    assertThrows(UsernameNotFoundException.class, () -> userService.findUserByUsername("nobody"));
+    assertThrows(UsernameNotFoundException.class, () -> userService.findUserByUsername("nobody"));
+    verify(userRepository, times(2)).findByUsername("nobody");
+  }
+}